@@ -9,14 +9,15 @@ import android.widget.Button;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
-import androidx.viewpager.widget.PagerAdapter;
 
 import com.flipview.segment.R;
 
+import se.emilsjolander.flipviewPager.RecyclingPagerAdapter;
+
 import java.util.ArrayList;
 import java.util.List;
 
-public class FlipAdapter extends PagerAdapter implements OnClickListener {
+public class FlipAdapter extends RecyclingPagerAdapter<FlipAdapter.ViewHolder> implements OnClickListener {
 
     public interface Callback {
         public void onPageRequested(int page);
@@ -45,6 +46,7 @@ public class FlipAdapter extends PagerAdapter implements OnClickListener {
         for (int i = 0; i < 10; i++) {
             items.add(new Item());
         }
+        setHasStableIds(true);
     }
 
     public void setCallback(Callback callback) {
@@ -56,11 +58,16 @@ public class FlipAdapter extends PagerAdapter implements OnClickListener {
         return items.size();
     }
 
+    @Override
+    public long getItemId(int position) {
+        return items.get(position).getId();
+    }
+
     @NonNull
     @Override
-    public Object instantiateItem(@NonNull ViewGroup container, int position) {
-        ViewHolder holder = new ViewHolder(inflater.inflate(R.layout.page, container, false));
-        View convertView = holder.view;
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        ViewHolder holder = new ViewHolder(inflater.inflate(R.layout.page, parent, false));
+        View convertView = holder.itemView;
 
         holder.text = (TextView) convertView.findViewById(R.id.text);
         holder.firstPage = (Button) convertView.findViewById(R.id.first_page);
@@ -68,20 +75,23 @@ public class FlipAdapter extends PagerAdapter implements OnClickListener {
 
         holder.firstPage.setOnClickListener(this);
         holder.lastPage.setOnClickListener(this);
-        holder.text.setText(items.get(position).getId() + ":" + position);
         convertView.setTag(holder);
-        container.addView(convertView);
         return holder;
     }
 
-    static class ViewHolder {
-        private final View view;
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        // only the id, pages which moved keep their binding
+        holder.text.setText(String.valueOf(items.get(position).getId()));
+    }
+
+    static class ViewHolder extends RecyclingPagerAdapter.ViewHolder {
         TextView text;
         Button firstPage;
         Button lastPage;
 
         public ViewHolder(View view) {
-            this.view = view;
+            super(view);
         }
     }
 
@@ -114,14 +124,4 @@ public class FlipAdapter extends PagerAdapter implements OnClickListener {
         }
         notifyDataSetChanged();
     }
-
-    @Override
-    public void destroyItem(@NonNull ViewGroup container, int position, @NonNull Object object) {
-        container.removeView(((ViewHolder) object).view);
-    }
-
-    @Override
-    public boolean isViewFromObject(@NonNull View view, @NonNull Object object) {
-        return false;
-    }
 }
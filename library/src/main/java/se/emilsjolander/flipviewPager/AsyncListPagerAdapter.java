@@ -0,0 +1,200 @@
+package se.emilsjolander.flipviewPager;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.clumob.listitem.controller.source.BatchingListUpdateCallback;
+import com.clumob.listitem.controller.source.DiffUtil;
+import com.clumob.listitem.controller.source.ListUpdateCallback;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * A {@link RecyclingPagerAdapter} backed by a list which is replaced as a
+ * whole with {@link #submitList(List)}. The difference between the current
+ * and the new list is computed on a background thread and applied on the
+ * main thread at the start of the next frame. When several lists arrive
+ * before a frame only the newest one is applied.
+ * <p>
+ * The diff is applied as fine grained item notifications, so every active
+ * page whose item is still in the list is kept, pages whose item changed are
+ * rebound in place, with the payload of the item callback, and only pages
+ * whose item was removed are destroyed.
+ * <p>
+ * The diffing classes come from the rvItemControllerSource jar in
+ * externalLibs/libs-rvadapters. The library only compiles against that jar,
+ * like the sample app, apps using this adapter must add it as an
+ * implementation dependency themselves.
+ *
+ * @param <T>  the item type
+ * @param <VH> the view holder type
+ */
+public abstract class AsyncListPagerAdapter<T, VH extends RecyclingPagerAdapter.ViewHolder>
+        extends RecyclingPagerAdapter<VH> {
+
+    private static Executor sDiffExecutor;
+
+    private final DiffUtil.ItemCallback<T> mItemCallback;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+
+    // guarded by this, the list and generation the next diff starts from
+    private List<T> mItems = Collections.emptyList();
+    private int mGeneration;
+
+    // main thread only, the newest diff waiting for the next frame
+    private List<T> mPendingItems;
+    private DiffUtil.DiffResult mPendingResult;
+    private int mPendingGeneration;
+    private boolean mApplyScheduled;
+
+    private final Choreographer.FrameCallback mApplyCallback = frameTimeNanos -> applyPendingList();
+    private final ListUpdateCallback mUpdateCallback = new ListUpdateCallback() {
+
+        @Override
+        public void onInserted(int position, int count) {
+            notifyItemRangeInserted(position, count);
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            notifyItemRangeRemoved(position, count);
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            notifyItemMoved(fromPosition, toPosition);
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            notifyItemRangeChanged(position, count, payload);
+        }
+
+    };
+
+    public AsyncListPagerAdapter(@NonNull DiffUtil.ItemCallback<T> itemCallback) {
+        mItemCallback = itemCallback;
+    }
+
+    /**
+     * Replace the list of items, can be called from any thread. The list
+     * must not be modified after it has been submitted.
+     */
+    public void submitList(@Nullable List<T> list) {
+        final List<T> newItems = list == null ? Collections.<T>emptyList()
+                : Collections.unmodifiableList(new ArrayList<>(list));
+        final List<T> oldItems;
+        final int generation;
+        synchronized (this) {
+            oldItems = mItems;
+            generation = ++mGeneration;
+        }
+        getDiffExecutor().execute(() -> {
+            final DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffCallback(oldItems, newItems));
+            mMainHandler.post(() -> scheduleApply(generation, newItems, result));
+        });
+    }
+
+    /**
+     * @return the list of items currently shown
+     */
+    @NonNull
+    public synchronized List<T> getCurrentList() {
+        return mItems;
+    }
+
+    public T getItem(int position) {
+        return getCurrentList().get(position);
+    }
+
+    @Override
+    public int getCount() {
+        return getCurrentList().size();
+    }
+
+    private void scheduleApply(int generation, List<T> items, DiffUtil.DiffResult result) {
+        mPendingGeneration = generation;
+        mPendingItems = items;
+        mPendingResult = result;
+        if (!mApplyScheduled) {
+            mApplyScheduled = true;
+            Choreographer.getInstance().postFrameCallback(mApplyCallback);
+        }
+    }
+
+    private void applyPendingList() {
+        mApplyScheduled = false;
+        final DiffUtil.DiffResult result = mPendingResult;
+        mPendingResult = null;
+        synchronized (this) {
+            // a newer list was submitted, its diff will be applied instead
+            if (result == null || mPendingGeneration != mGeneration) {
+                return;
+            }
+            mItems = mPendingItems;
+        }
+        mPendingItems = null;
+
+        final BatchingListUpdateCallback callback = new BatchingListUpdateCallback(mUpdateCallback);
+        beginBatch();
+        result.dispatchUpdatesTo(callback);
+        callback.dispatchLastEvent();
+        endBatch();
+    }
+
+    private static synchronized Executor getDiffExecutor() {
+        if (sDiffExecutor == null) {
+            sDiffExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "FlipViewListDiffer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return sDiffExecutor;
+    }
+
+    private class DiffCallback extends DiffUtil.Callback {
+
+        private final List<T> mOld;
+        private final List<T> mNew;
+
+        DiffCallback(List<T> oldItems, List<T> newItems) {
+            mOld = oldItems;
+            mNew = newItems;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return mOld.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return mNew.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+            return mItemCallback.areItemsTheSame(mOld.get(oldItemPosition), mNew.get(newItemPosition));
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            return mItemCallback.areContentsTheSame(mOld.get(oldItemPosition), mNew.get(newItemPosition));
+        }
+
+        @Override
+        public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+            return mItemCallback.getChangePayload(mOld.get(oldItemPosition), mNew.get(newItemPosition));
+        }
+    }
+
+}
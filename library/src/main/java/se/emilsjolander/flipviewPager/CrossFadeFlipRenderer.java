@@ -0,0 +1,26 @@
+package se.emilsjolander.flipviewPager;
+
+import android.graphics.Canvas;
+
+/**
+ * Fades the next page in over the previous one. No transforms, at most two
+ * page draws per frame.
+ */
+public class CrossFadeFlipRenderer implements FlipRenderer {
+
+    @Override
+    public void draw(Canvas canvas, FlipFrame frame) {
+        final long pagePixels = (long) frame.getWidth() * frame.getHeight();
+        final int nextAlpha = Math.round(frame.getFraction() * 255);
+        // an opaque next page drawn at full alpha hides the previous one
+        if (frame.hasPreviousPage() && (nextAlpha < 255 || !frame.isNextPageOpaque())) {
+            frame.drawPreviousPage(canvas);
+            frame.addDrawnPixels(pagePixels);
+        }
+        if (frame.hasNextPage() && nextAlpha > 0) {
+            frame.drawNextPage(canvas, nextAlpha);
+            frame.addDrawnPixels(pagePixels);
+        }
+    }
+
+}
@@ -0,0 +1,199 @@
+package se.emilsjolander.flipviewPager;
+
+import android.view.Choreographer;
+import android.view.animation.Interpolator;
+
+/**
+ * Animates the flip distance of a {@link FlipView} towards a target. Ticks
+ * on Choreographer frame callbacks, which run before the frame is laid out
+ * and drawn, and uses the vsync time of the frame so the flip distance
+ * advances evenly no matter when the draw happens. Flip distances are floats
+ * so slow settles on large screens do not step.
+ * <p>
+ * A settle either follows an interpolator over a fixed duration or is driven
+ * by a spring, which also carries over the release velocity of a fling.
+ */
+class FlipAnimator implements Choreographer.FrameCallback {
+
+    interface Callback {
+        /**
+         * Called once per frame with the new flip distance
+         */
+        void onFlipAnimationUpdate(float flipDistance);
+
+        /**
+         * Called after the last update of an animation which was not canceled
+         */
+        void onFlipAnimationEnd();
+    }
+
+    static final float DEFAULT_SPRING_STIFFNESS = 200;
+    static final float DEFAULT_SPRING_DAMPING_RATIO = 1;
+
+    // the spring is at rest when this close to its target
+    private static final float SPRING_REST_DISTANCE = 0.5f;
+    private static final float SPRING_REST_VELOCITY = 10;// per second
+    // longest step of the spring integration, longer frames take more steps
+    private static final float MAX_SPRING_STEP = 1 / 240f;// in s
+
+    private final Callback mCallback;
+    private Interpolator mInterpolator;
+    private boolean mRunning;
+
+    private float mStart;
+    private float mTarget;
+    private float mCurrent;
+
+    // interpolated animations
+    private long mDurationNanos;
+    private long mStartFrameNanos;
+
+    // spring animations
+    private boolean mSpring;
+    private float mStiffness = DEFAULT_SPRING_STIFFNESS;
+    private float mDampingRatio = DEFAULT_SPRING_DAMPING_RATIO;
+    private float mVelocity;
+    private long mLastFrameNanos;
+
+    FlipAnimator(Callback callback, Interpolator interpolator) {
+        mCallback = callback;
+        mInterpolator = interpolator;
+    }
+
+    void setInterpolator(Interpolator interpolator) {
+        mInterpolator = interpolator;
+    }
+
+    void setSpring(float stiffness, float dampingRatio) {
+        mStiffness = stiffness;
+        mDampingRatio = dampingRatio;
+    }
+
+    boolean isRunning() {
+        return mRunning;
+    }
+
+    /**
+     * @return where the current or last animation ends
+     */
+    float getTarget() {
+        return mTarget;
+    }
+
+    /**
+     * Animate from start to target with the interpolator
+     *
+     * @param duration in ms
+     */
+    void animateTo(float start, float target, int duration) {
+        mSpring = false;
+        mDurationNanos = duration * 1000000L;
+        start(start, target);
+    }
+
+    /**
+     * Let a spring pull the flip distance from start to target
+     *
+     * @param velocity initial velocity in flip distance per second
+     */
+    void springTo(float start, float target, float velocity) {
+        mSpring = true;
+        mVelocity = velocity;
+        start(start, target);
+    }
+
+    /**
+     * Move a running animation by offset, for example when pages were
+     * inserted before the current one
+     */
+    void offset(float offset) {
+        mStart += offset;
+        mTarget += offset;
+        mCurrent += offset;
+    }
+
+    /**
+     * Stop without reporting the end
+     */
+    void cancel() {
+        if (mRunning) {
+            mRunning = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+    }
+
+    private void start(float start, float target) {
+        cancel();
+        mStart = mCurrent = start;
+        mTarget = target;
+        // the clock starts with the first frame so no time is lost to the
+        // frame in which the animation was started
+        mStartFrameNanos = mLastFrameNanos = 0;
+        mRunning = true;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!mRunning) {
+            return;
+        }
+        final boolean finished = mSpring ? stepSpring(frameTimeNanos) : stepInterpolated(frameTimeNanos);
+        if (finished) {
+            mRunning = false;
+        } else {
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+        mCallback.onFlipAnimationUpdate(mCurrent);
+        if (finished) {
+            mCallback.onFlipAnimationEnd();
+        }
+    }
+
+    /**
+     * @return true if the animation reached its target
+     */
+    private boolean stepInterpolated(long frameTimeNanos) {
+        if (mStartFrameNanos == 0) {
+            mStartFrameNanos = frameTimeNanos;
+        }
+        final long elapsed = frameTimeNanos - mStartFrameNanos;
+        if (elapsed >= mDurationNanos) {
+            mCurrent = mTarget;
+            return true;
+        }
+        final float fraction = mInterpolator.getInterpolation(elapsed / (float) mDurationNanos);
+        mCurrent = mStart + (mTarget - mStart) * fraction;
+        return false;
+    }
+
+    /**
+     * @return true if the spring came to rest at its target
+     */
+    private boolean stepSpring(long frameTimeNanos) {
+        if (mLastFrameNanos == 0) {
+            mLastFrameNanos = frameTimeNanos;
+            return false;
+        }
+        float remaining = (frameTimeNanos - mLastFrameNanos) / 1e9f;
+        mLastFrameNanos = frameTimeNanos;
+
+        final float damping = 2 * mDampingRatio * (float) Math.sqrt(mStiffness);
+        while (remaining > 0) {
+            final float dt = Math.min(remaining, MAX_SPRING_STEP);
+            remaining -= dt;
+            final float acceleration = -mStiffness * (mCurrent - mTarget) - damping * mVelocity;
+            mVelocity += acceleration * dt;
+            mCurrent += mVelocity * dt;
+        }
+
+        if (Math.abs(mCurrent - mTarget) < SPRING_REST_DISTANCE
+                && Math.abs(mVelocity) < SPRING_REST_VELOCITY) {
+            mCurrent = mTarget;
+            mVelocity = 0;
+            return true;
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,123 @@
+package se.emilsjolander.flipviewPager;
+
+import android.graphics.Canvas;
+
+/**
+ * The state of one frame of a flip, handed to a {@link FlipRenderer}. A flip
+ * always happens between two neighbouring pages, the previous page is the
+ * one with the lower position. Reused from frame to frame, do not keep it.
+ */
+public final class FlipFrame {
+
+    private final FlipView mFlipView;
+
+    float degreesFlipped;
+    int width;
+    int height;
+    boolean vertical;
+    boolean occlusionCulling;
+    boolean shadows;
+    FlipView.Page previousPage;
+    FlipView.Page nextPage;
+    // page area drawn this frame, reported by the built-in renderers
+    long drawnPixels;
+
+    FlipFrame(FlipView flipView) {
+        mFlipView = flipView;
+    }
+
+    /**
+     * @return 0 to 180, 0 shows the previous page and 180 the next page
+     */
+    public float getDegreesFlipped() {
+        return degreesFlipped;
+    }
+
+    /**
+     * @return 0 to 1, how far the flip went from the previous to the next page
+     */
+    public float getFraction() {
+        return degreesFlipped / 180;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean isFlippingVertically() {
+        return vertical;
+    }
+
+    /**
+     * @return false if the render quality of the FlipView was lowered to
+     * {@link RenderQuality#NO_SHADOWS} or below, renderers should skip any
+     * purely decorative paints then
+     */
+    public boolean isShadowEnabled() {
+        return shadows;
+    }
+
+    public boolean hasPreviousPage() {
+        return previousPage.valid;
+    }
+
+    public boolean hasNextPage() {
+        return nextPage.valid;
+    }
+
+    /**
+     * @return true if whatever the previous page covers may be skipped. That
+     * is the case if the page view reports itself opaque, for example through
+     * an opaque background, or occlusion culling was enabled on the FlipView
+     */
+    public boolean isPreviousPageOpaque() {
+        return isOpaque(previousPage);
+    }
+
+    public boolean isNextPageOpaque() {
+        return isOpaque(nextPage);
+    }
+
+    private boolean isOpaque(FlipView.Page page) {
+        return page.valid && !page.placeholder && (occlusionCulling || page.view.isOpaque());
+    }
+
+    /**
+     * Draw the whole previous page at 0, 0 with the current canvas transform
+     * and clip, does nothing if there is no previous page
+     */
+    public void drawPreviousPage(Canvas canvas) {
+        drawPreviousPage(canvas, 255);
+    }
+
+    /**
+     * @param alpha 0 to 255
+     */
+    public void drawPreviousPage(Canvas canvas, int alpha) {
+        if (previousPage.valid) {
+            mFlipView.drawPage(canvas, previousPage, alpha);
+        }
+    }
+
+    public void drawNextPage(Canvas canvas) {
+        drawNextPage(canvas, 255);
+    }
+
+    /**
+     * @param alpha 0 to 255
+     */
+    public void drawNextPage(Canvas canvas, int alpha) {
+        if (nextPage.valid) {
+            mFlipView.drawPage(canvas, nextPage, alpha);
+        }
+    }
+
+    void addDrawnPixels(long pixels) {
+        drawnPixels += pixels;
+    }
+
+}
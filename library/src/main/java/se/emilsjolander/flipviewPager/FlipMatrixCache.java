@@ -0,0 +1,80 @@
+package se.emilsjolander.flipviewPager;
+
+import android.graphics.Camera;
+import android.graphics.Matrix;
+
+/**
+ * Ready made transforms for the flipping half of a page, one per quarter
+ * degree of flip. Built when the size of the FlipView changes so drawing a
+ * frame needs no Camera math.
+ */
+class FlipMatrixCache {
+
+    static final int STEPS_PER_DEGREE = 4;
+    private static final int STEPS = 180 * STEPS_PER_DEGREE + 1;
+
+    private final Camera mCamera = new Camera();
+    private final Matrix mIdentity = new Matrix();
+    private Matrix[] mMatrices;
+    private int mWidth = -1;
+    private int mHeight = -1;
+    private boolean mVertical;
+
+    /**
+     * Rebuild the transforms if the size or orientation changed
+     */
+    void update(int width, int height, boolean vertical) {
+        if (mMatrices != null && width == mWidth && height == mHeight && vertical == mVertical) {
+            return;
+        }
+        mWidth = width;
+        mHeight = height;
+        mVertical = vertical;
+        if (mMatrices == null) {
+            mMatrices = new Matrix[STEPS];
+            for (int i = 0; i < STEPS; i++) {
+                mMatrices[i] = new Matrix();
+            }
+        }
+        for (int i = 0; i < STEPS; i++) {
+            build(mMatrices[i], i / (float) STEPS_PER_DEGREE);
+        }
+    }
+
+    /**
+     * @param degreesFlipped 0 to 180
+     * @return the transform for the flipping half, do not modify it
+     */
+    Matrix get(float degreesFlipped) {
+        if (mMatrices == null) {
+            return mIdentity;
+        }
+        final int step = Math.round(degreesFlipped * STEPS_PER_DEGREE);
+        return mMatrices[Math.max(0, Math.min(STEPS - 1, step))];
+    }
+
+    private void build(Matrix matrix, float degreesFlipped) {
+        mCamera.save();
+        if (degreesFlipped > 90) {
+            if (mVertical) {
+                mCamera.rotateX(degreesFlipped - 180);
+            } else {
+                mCamera.rotateY(180 - degreesFlipped);
+            }
+        } else {
+            if (mVertical) {
+                mCamera.rotateX(degreesFlipped);
+            } else {
+                mCamera.rotateY(-degreesFlipped);
+            }
+        }
+        mCamera.getMatrix(matrix);
+        mCamera.restore();
+
+        matrix.preScale(0.25f, 0.25f);
+        matrix.postScale(4.0f, 4.0f);
+        matrix.preTranslate(-mWidth / 2, -mHeight / 2);
+        matrix.postTranslate(mWidth / 2, mHeight / 2);
+    }
+
+}
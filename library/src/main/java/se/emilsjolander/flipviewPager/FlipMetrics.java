@@ -0,0 +1,138 @@
+package se.emilsjolander.flipviewPager;
+
+/**
+ * Frame statistics of one completed flip, from the moment the flip started
+ * until the FlipView settled on a page. All times are in nanoseconds.
+ * <p>
+ * Frame intervals are the gaps between consecutive Choreographer frame
+ * callbacks on the main thread, they tell whether the main thread kept up
+ * with vsync. The time the FlipView itself spent drawing is reported by the
+ * dispatchDraw getters.
+ */
+public class FlipMetrics {
+
+    long durationNanos;
+    long frameBudgetNanos;
+    int frameIntervals;
+    int jankyFrameIntervals;
+    long worstFrameIntervalNanos;
+    long dispatchDrawNanos;
+    int dispatchDrawCount;
+    long worstDispatchDrawNanos;
+    long instantiateItemNanos;
+    int instantiateItemCount;
+    long destroyItemNanos;
+    int destroyItemCount;
+    long drawnPagePixels;
+    long viewPixels;
+
+    /**
+     * @return time from the start of the flip until it settled
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * @return the time of one vsync interval of the display during the flip
+     */
+    public long getFrameBudgetNanos() {
+        return frameBudgetNanos;
+    }
+
+    /**
+     * @return amount of intervals between Choreographer frame callbacks
+     * during the flip
+     */
+    public int getFrameIntervals() {
+        return frameIntervals;
+    }
+
+    /**
+     * @return amount of frame intervals longer than one and a half vsync
+     * intervals, in each of them the main thread missed at least one vsync
+     */
+    public int getJankyFrameIntervals() {
+        return jankyFrameIntervals;
+    }
+
+    /**
+     * @return the longest interval between two Choreographer frame callbacks
+     */
+    public long getWorstFrameIntervalNanos() {
+        return worstFrameIntervalNanos;
+    }
+
+    /**
+     * @return total time spent in FlipView.dispatchDraw
+     */
+    public long getDispatchDrawNanos() {
+        return dispatchDrawNanos;
+    }
+
+    /**
+     * @return how many times FlipView.dispatchDraw ran, the frames the
+     * FlipView actually drew
+     */
+    public int getDispatchDrawCount() {
+        return dispatchDrawCount;
+    }
+
+    /**
+     * @return the longest single FlipView.dispatchDraw
+     */
+    public long getWorstDispatchDrawNanos() {
+        return worstDispatchDrawNanos;
+    }
+
+    /**
+     * @return total time spent in PagerAdapter.instantiateItem
+     */
+    public long getInstantiateItemNanos() {
+        return instantiateItemNanos;
+    }
+
+    public int getInstantiateItemCount() {
+        return instantiateItemCount;
+    }
+
+    /**
+     * @return total time spent in PagerAdapter.destroyItem
+     */
+    public long getDestroyItemNanos() {
+        return destroyItemNanos;
+    }
+
+    public int getDestroyItemCount() {
+        return destroyItemCount;
+    }
+
+    /**
+     * Only counted in debug builds of the library.
+     *
+     * @return how many times each pixel of the view was covered by a page on
+     * average, 0 if not counted
+     */
+    public float getPageOverdraw() {
+        return viewPixels == 0 ? 0 : drawnPagePixels / (float) viewPixels;
+    }
+
+    @Override
+    public String toString() {
+        return "FlipMetrics{durationNanos=" + durationNanos
+                + ", frameBudgetNanos=" + frameBudgetNanos
+                + ", frameIntervals=" + frameIntervals
+                + ", jankyFrameIntervals=" + jankyFrameIntervals
+                + ", worstFrameIntervalNanos=" + worstFrameIntervalNanos
+                + ", dispatchDrawNanos=" + dispatchDrawNanos
+                + ", dispatchDrawCount=" + dispatchDrawCount
+                + ", worstDispatchDrawNanos=" + worstDispatchDrawNanos
+                + ", instantiateItemNanos=" + instantiateItemNanos
+                + ", instantiateItemCount=" + instantiateItemCount
+                + ", destroyItemNanos=" + destroyItemNanos
+                + ", destroyItemCount=" + destroyItemCount
+                + ", pageOverdraw=" + getPageOverdraw()
+                + "}";
+    }
+
+}
@@ -0,0 +1,116 @@
+package se.emilsjolander.flipviewPager;
+
+import android.view.Choreographer;
+
+/**
+ * Collects {@link FlipMetrics} for a single flip. Frame intervals are taken
+ * from Choreographer frame callbacks, which run once per vsync while
+ * tracking, draw times are reported by the FlipView.
+ */
+class FlipMetricsTracker implements Choreographer.FrameCallback {
+
+    interface Callback {
+        void onFlipMetrics(FlipMetrics metrics);
+    }
+
+    private final Callback mCallback;
+    private FlipMetrics mMetrics;
+    private long mStartNanos;
+    private long mLastFrameNanos;
+
+    FlipMetricsTracker(Callback callback) {
+        mCallback = callback;
+    }
+
+    boolean isTracking() {
+        return mMetrics != null;
+    }
+
+    /**
+     * @param frameBudgetNanos duration of one vsync interval
+     */
+    void start(long frameBudgetNanos) {
+        if (mMetrics != null) {
+            return;
+        }
+        mMetrics = new FlipMetrics();
+        mMetrics.frameBudgetNanos = frameBudgetNanos;
+        mStartNanos = System.nanoTime();
+        mLastFrameNanos = 0;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    /**
+     * Stop tracking and report the metrics of the flip
+     */
+    void end() {
+        if (mMetrics == null) {
+            return;
+        }
+        Choreographer.getInstance().removeFrameCallback(this);
+        final FlipMetrics metrics = mMetrics;
+        metrics.durationNanos = System.nanoTime() - mStartNanos;
+        mMetrics = null;
+        mCallback.onFlipMetrics(metrics);
+    }
+
+    /**
+     * Stop tracking without reporting
+     */
+    void cancel() {
+        Choreographer.getInstance().removeFrameCallback(this);
+        mMetrics = null;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (mMetrics == null) {
+            return;
+        }
+        if (mLastFrameNanos > 0) {
+            final long intervalNanos = frameTimeNanos - mLastFrameNanos;
+            mMetrics.frameIntervals++;
+            // anything past one and a half intervals missed a vsync
+            if (intervalNanos * 2 > mMetrics.frameBudgetNanos * 3) {
+                mMetrics.jankyFrameIntervals++;
+            }
+            mMetrics.worstFrameIntervalNanos = Math.max(mMetrics.worstFrameIntervalNanos, intervalNanos);
+        }
+        mLastFrameNanos = frameTimeNanos;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    void addDispatchDraw(long nanos) {
+        if (mMetrics != null) {
+            mMetrics.dispatchDrawNanos += nanos;
+            mMetrics.dispatchDrawCount++;
+            mMetrics.worstDispatchDrawNanos = Math.max(mMetrics.worstDispatchDrawNanos, nanos);
+        }
+    }
+
+    void addInstantiateItem(long nanos) {
+        if (mMetrics != null) {
+            mMetrics.instantiateItemNanos += nanos;
+            mMetrics.instantiateItemCount++;
+        }
+    }
+
+    /**
+     * @param drawnPixels area of the pages drawn in a frame
+     * @param viewPixels  area of the view
+     */
+    void addDrawnPixels(long drawnPixels, long viewPixels) {
+        if (mMetrics != null) {
+            mMetrics.drawnPagePixels += drawnPixels;
+            mMetrics.viewPixels += viewPixels;
+        }
+    }
+
+    void addDestroyItem(long nanos) {
+        if (mMetrics != null) {
+            mMetrics.destroyItemNanos += nanos;
+            mMetrics.destroyItemCount++;
+        }
+    }
+
+}
@@ -0,0 +1,39 @@
+package se.emilsjolander.flipviewPager;
+
+import android.graphics.Canvas;
+import android.graphics.Rect;
+
+/**
+ * Draws the frames of a flip for a {@link FlipView}. While the view is at
+ * rest it draws the current page itself, the renderer is only asked to draw
+ * while a page is being flipped. A renderer holds state for the size of its
+ * view so an instance must not be shared between FlipViews.
+ */
+public interface FlipRenderer {
+
+    /**
+     * Called before the first frame and whenever the size of the FlipView
+     * changes.
+     *
+     * @param vertical true if pages flip vertically
+     */
+    default void onSizeChanged(int width, int height, boolean vertical) {
+    }
+
+    /**
+     * Draw one frame of a flip between the two pages of frame
+     */
+    void draw(Canvas canvas, FlipFrame frame);
+
+    /**
+     * Called when the flip moves within one half turn to find the area which
+     * has to be drawn again. Default keeps the whole view.
+     *
+     * @param degreesFlipped the new angle of the flip, 0 to 180
+     * @param bounds         set to the bounds of the view, narrow it down to
+     *                       the area that changes
+     */
+    default void getDirtyBounds(float degreesFlipped, Rect bounds) {
+    }
+
+}
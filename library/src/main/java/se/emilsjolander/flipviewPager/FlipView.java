@@ -7,14 +7,14 @@ import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.res.TypedArray;
 import android.database.DataSetObserver;
-import android.graphics.Camera;
 import android.graphics.Canvas;
-import android.graphics.Color;
-import android.graphics.Matrix;
-import android.graphics.Paint;
-import android.graphics.Paint.Style;
 import android.graphics.Rect;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.Parcel;
+import android.os.Parcelable;
 import android.util.AttributeSet;
+import android.view.Display;
 import android.view.MotionEvent;
 import android.view.VelocityTracker;
 import android.view.View;
@@ -23,14 +23,18 @@ import android.view.animation.AccelerateDecelerateInterpolator;
 import android.view.animation.DecelerateInterpolator;
 import android.view.animation.Interpolator;
 import android.widget.FrameLayout;
-import android.widget.Scroller;
 
 import androidx.core.view.MotionEventCompat;
 import androidx.core.view.VelocityTrackerCompat;
+import androidx.core.view.ViewCompat;
 import androidx.viewpager.widget.PagerAdapter;
 
+import com.flipview.library.BuildConfig;
 import com.flipview.library.R;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+
 public class FlipView extends FrameLayout {
 
     private int storedVisibility;
@@ -55,6 +59,14 @@ public class FlipView extends FrameLayout {
                                float flipDistancePerPage);
     }
 
+    public interface OnFlipMetricsListener {
+        public void onFlipMetrics(FlipView v, FlipMetrics metrics);
+    }
+
+    public interface OnRenderQualityChangeListener {
+        public void onRenderQualityChanged(FlipView v, RenderQuality quality);
+    }
+
     /**
      * @author emilsjolander
      * <p>
@@ -65,6 +77,10 @@ public class FlipView extends FrameLayout {
         View view;
         int position;
         boolean valid;
+        // true while view is a stand-in for a page being prepared
+        boolean placeholder;
+        // bitmap of view captured for the current flip, null if not captured
+        PageSnapshot snapshot;
 
         public void setInValid() {
             this.valid = false;
@@ -75,17 +91,76 @@ public class FlipView extends FrameLayout {
         }
     }
 
+    /**
+     * The current page and the state of the adapter, restored straight to
+     * that page so no other pages are built on the way
+     */
+    static class SavedState extends BaseSavedState {
+        int position;
+        Parcelable adapterState;
+        ClassLoader loader;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        SavedState(Parcel in, ClassLoader loader) {
+            super(in);
+            if (loader == null) {
+                loader = getClass().getClassLoader();
+            }
+            position = in.readInt();
+            adapterState = in.readParcelable(loader);
+            this.loader = loader;
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeInt(position);
+            out.writeParcelable(adapterState, flags);
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR = new Parcelable.ClassLoaderCreator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel in, ClassLoader loader) {
+                return new SavedState(in, loader);
+            }
+
+            @Override
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in, null);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
+    }
+
     // "null" flip distance
     private static final int INVALID_FLIP_DISTANCE = -1;
 
+    // amount of pages kept alive on each side of the current page by default
+    private static final int DEFAULT_OFFSCREEN_PAGES = 1;
+
+    // returned for positions outside of the active window, never valid
+    private static final Page EMPTY_PAGE = new Page();
+
     private static final int PEAK_ANIM_DURATION = 600;// in ms
-    private static final int MAX_SINGLE_PAGE_FLIP_ANIM_DURATION = 300;// in ms
+
+    // smooth flips further than this jump next to the target page first
+    private static final int MAX_SMOOTH_FLIP_PAGES = 3;
 
     // for normalizing width/height
-    private static final int FLIP_DISTANCE_PER_PAGE = 180;
-    private static final int MAX_SHADOW_ALPHA = 180;// out of 255
-    private static final int MAX_SHADE_ALPHA = 130;// out of 255
-    private static final int MAX_SHINE_ALPHA = 100;// out of 255
+    private static final int FLIP_DISTANCE_PER_PAGE = FlipPhysics.FLIP_DISTANCE_PER_PAGE;
+
+    // used when the display does not report its refresh rate
+    private static final float DEFAULT_REFRESH_RATE = 60;
+
+    // snapshot scale used by RenderQuality.LOW_RES_SNAPSHOTS
+    private static final float LOW_RES_SNAPSHOT_SCALE = 0.5f;
 
     // value for no pointer
     private static final int INVALID_POINTER = -1;
@@ -102,6 +177,7 @@ public class FlipView extends FrameLayout {
         @Override
         public void onChanged() {
             dataSetChanged();
+            applyPendingRestoredPage();
         }
 
         @Override
@@ -111,9 +187,47 @@ public class FlipView extends FrameLayout {
 
     };
 
-    private Scroller mScroller;
+    private RecyclingPagerAdapter.ItemRangeObserver itemRangeObserver = new RecyclingPagerAdapter.ItemRangeObserver() {
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            itemRangeChanged(positionStart, itemCount);
+        }
+
+        @Override
+        public void onItemRangesMoved() {
+            itemRangesMoved();
+            applyPendingRestoredPage();
+        }
+
+    };
+
+    private final FlipAnimator.Callback flipAnimatorCallback = new FlipAnimator.Callback() {
+
+        @Override
+        public void onFlipAnimationUpdate(float flipDistance) {
+            final int maxFlipDistance = (mPageCount - 1) * FLIP_DISTANCE_PER_PAGE;
+            setFlipDistance(Math.min(flipDistance, maxFlipDistance));
+        }
+
+        @Override
+        public void onFlipAnimationEnd() {
+            // the idle draw finishes the flip
+            invalidate();
+        }
+
+    };
+
+    // settles flips, page slots are swapped in its frame callback ahead of the draw
+    private FlipAnimator mFlipAnimator;
     private final Interpolator flipInterpolator = new DecelerateInterpolator();
+    private boolean mSpringFlip;
+    // created on the first peak and reused after that
     private ValueAnimator mPeakAnim;
+    // the animator runs from 0 to 1, reading a boxed animated value each frame would allocate
+    private float mPeakStartDistance;
+    private float mPeakEndDistance;
+    private boolean mPeaking;
     private TimeInterpolator mPeakInterpolator = new AccelerateDecelerateInterpolator();
 
     private boolean mIsFlippingVertically = true;
@@ -124,6 +238,11 @@ public class FlipView extends FrameLayout {
     }
 
     private void setFlipping(boolean value) {
+        if (value) {
+            startFlipMetrics();
+            // the user moved on before the restored page was loaded
+            mPendingRestoredPage = PagerAdapter.POSITION_NONE;
+        }
         if (flipping != value && mOnFlipListener != null) {
             if (flipping) {
                 flipScrollListener.onFlip(this, OnFlipScrollListener.ScrollState.START);
@@ -150,42 +269,130 @@ public class FlipView extends FrameLayout {
     private VelocityTracker mVelocityTracker;
     private int mMinimumVelocity;
     private int mMaximumVelocity;
+    private int mMaxFlingPages = 1;
 
     // views get recycled after they have been pushed out of the active queue
 
     private PagerAdapter mAdapter;
     private int mPageCount = 0;
-    private Page mPreviousPage = new Page();
-    private Page mCurrentPage = new Page();
-    private Page mNextPage = new Page();
+    // ring buffer of the active pages, the page for a position always lives in
+    // slot position % mPages.length
+    private Page[] mPages;
+    private int mOffscreenPageLimit = DEFAULT_OFFSCREEN_PAGES;
     private View mEmptyView;
 
+    // inflates pages of a RecyclingPagerAdapter off the main thread
+    private PagePreparer mPagePreparer;
+    private boolean mAsyncPagePreparation;
+
+    // instantiates pages not needed for the current frame in frame slack
+    private PagePrefetcher mPagePrefetcher;
+    private boolean mIdlePrefetch;
+    // 1 when the last flip went to the next page, -1 when to the previous one
+    private int mTravelDirection = 1;
+    private final PagePrefetcher.Callback pagePrefetcherCallback = new PagePrefetcher.Callback() {
+
+        @Override
+        public int getNextPrefetchPosition() {
+            return FlipView.this.getNextPrefetchPosition();
+        }
+
+        @Override
+        public int getItemViewType(int position) {
+            return getPageViewType(position);
+        }
+
+        @Override
+        public void prefetch(int position) {
+            ensurePage(position);
+            scheduleLayerWarmup();
+        }
+
+        @Override
+        public boolean isIdle() {
+            return !isFlipping() && !mFlipAnimator.isRunning() && !mPeaking;
+        }
+
+    };
+
+    // build only the current page on setAdapter, its neighbours after the first frame
+    private boolean mFastFirstFrame;
+    // true until the neighbours skipped by mFastFirstFrame were instantiated
+    private boolean mNeighboursDeferred;
+    // true while the pages of an adapter set before the first layout wait for
+    // the first measure, a state restored until then only builds its window
+    private boolean mPagesDeferred;
+    private boolean mNeighbourFillScheduled;
+    private final MessageQueue.IdleHandler mNeighbourFiller = () -> {
+        mNeighbourFillScheduled = false;
+        fillDeferredNeighbours();
+        return false;
+    };
+
+    // draw bitmaps of the pages while flipping instead of the views
+    private boolean mSnapshotRendering;
+    private float mSnapshotScale = 1f;
+    private boolean mOpaqueSnapshots;
+
+    private LayerPolicy mLayerPolicy = LayerPolicy.DURING_FLIP;
+    // true once the neighbours' layers were built for the current idle period
+    private boolean mLayersWarm;
+    private boolean mLayerWarmupScheduled;
+    private final MessageQueue.IdleHandler mLayerWarmer = () -> {
+        mLayerWarmupScheduled = false;
+        warmUpLayers();
+        return false;
+    };
+    private final ArrayList<PageSnapshot> mSnapshotPool = new ArrayList<>();
+
     private OnFlipListener mOnFlipListener;
     private OnFlipScrollListener flipScrollListener;
     private OnOverFlipListener mOnOverFlipListener;
+    private OnFlipMetricsListener mOnFlipMetricsListener;
+    private FlipMetricsTracker mFlipMetrics;
+    // lowers the render quality when flips miss frames, null if disabled
+    private RenderQualityGovernor mQualityGovernor;
+    private OnRenderQualityChangeListener mOnRenderQualityChangeListener;
 
     private float mFlipDistance = INVALID_FLIP_DISTANCE;
     private int mCurrentPageIndex = 0;
     private int mLastDispatchedPageEventIndex = -1;
+    // restored before an adapter was set, applied by the next setAdapter
+    private int mRestoredPage = PagerAdapter.POSITION_NONE;
+    private Parcelable mRestoredAdapterState;
+    private ClassLoader mRestoredClassLoader;
+    // restored while the adapter had too few pages, applied by the first data
+    // change that makes it valid
+    private int mPendingRestoredPage = PagerAdapter.POSITION_NONE;
     private boolean flipNotificationPending = false;
+    // pages waiting for onFlippedToPage in order, dispatched by one reused runnable
+    private int[] mFlipNotificationPages = new int[4];
+    private int mFlipNotificationCount;
+    private boolean mFlipNotifierPosted;
+    private final Runnable mFlipNotifier = () -> {
+        // pages queued by the listener itself are dispatched by this loop too
+        for (int i = 0; i < mFlipNotificationCount; i++) {
+            if (mOnFlipListener != null) {
+                mOnFlipListener.onFlippedToPage(FlipView.this, mFlipNotificationPages[i]);
+            }
+        }
+        mFlipNotificationCount = 0;
+        mFlipNotifierPosted = false;
+    };
 
     private OverFlipMode mOverFlipMode;
     private OverFlipper mOverFlipper;
 
-    // clipping rects
-    private Rect mTopRect = new Rect();
-    private Rect mBottomRect = new Rect();
-    private Rect mRightRect = new Rect();
-    private Rect mLeftRect = new Rect();
-
-    // used for transforming the canvas
-    private Camera mCamera = new Camera();
-    private Matrix mMatrix = new Matrix();
+    // draws the frames of a flip
+    private FlipRenderer mFlipRenderer = new FoldFlipRenderer();
+    private final FlipFrame mFlipFrame = new FlipFrame(this);
+    private boolean mOcclusionCulling;
 
-    // paints drawn above views when flipping
-    private Paint mShadowPaint = new Paint();
-    private Paint mShadePaint = new Paint();
-    private Paint mShinePaint = new Paint();
+    // what the last flip invalidation covered, to invalidate only changes
+    private int mInvalidatedPage = PagerAdapter.POSITION_NONE;
+    private int mInvalidatedStep;
+    private boolean mInvalidatedPreviousHalf;
+    private final Rect mDirtyRect = new Rect();
 
     public FlipView(Context context) {
         this(context, null);
@@ -208,6 +415,10 @@ public class FlipView extends FrameLayout {
         setOverFlipMode(OverFlipMode.values()[a.getInt(
                 R.styleable.FlipView_overFlipMode, 0)]);
 
+        mOffscreenPageLimit = Math.max(1, a.getInt(
+                R.styleable.FlipView_offscreenPageLimit, DEFAULT_OFFSCREEN_PAGES));
+        mPages = createPages(mOffscreenPageLimit * 2 + 1);
+
         a.recycle();
 
         init();
@@ -217,29 +428,68 @@ public class FlipView extends FrameLayout {
         final Context context = getContext();
         final ViewConfiguration configuration = ViewConfiguration.get(context);
 
-        mScroller = new Scroller(context, flipInterpolator);
+        mFlipAnimator = new FlipAnimator(flipAnimatorCallback, flipInterpolator);
         mTouchSlop = configuration.getScaledPagingTouchSlop();
         mMinimumVelocity = configuration.getScaledMinimumFlingVelocity();
         mMaximumVelocity = configuration.getScaledMaximumFlingVelocity();
+    }
+
+    private static Page[] createPages(int size) {
+        final Page[] pages = new Page[size];
+        for (int i = 0; i < size; i++) {
+            pages[i] = new Page();
+        }
+        return pages;
+    }
 
-        mShadowPaint.setColor(Color.BLACK);
-        mShadowPaint.setStyle(Style.FILL);
-        mShadePaint.setColor(Color.BLACK);
-        mShadePaint.setStyle(Style.FILL);
-        mShinePaint.setColor(Color.WHITE);
-        mShinePaint.setStyle(Style.FILL);
+    /**
+     * @param position adapter position
+     * @return the active page for the position or an invalid page if the
+     * position is not part of the active window
+     */
+    private Page getPage(int position) {
+        if (position >= 0) {
+            final Page page = mPages[position % mPages.length];
+            if (page.valid && page.position == position) {
+                return page;
+            }
+        }
+        return EMPTY_PAGE;
     }
 
     private int getAdapterPosition(Page page) {
+        if (page.placeholder) {
+            // nothing is bound to a placeholder yet, it stands in for its
+            // position until that position is gone
+            return page.position < mAdapter.getCount() ? page.position : PagerAdapter.POSITION_NONE;
+        }
         return page.item == null ? PagerAdapter.POSITION_NONE : mAdapter.getItemPosition(page.item);
     }
 
     private void dataSetChanged() {
-        int newPosition = getAdapterPosition(mCurrentPage);
+        if (mPagesDeferred) {
+            // no page was instantiated yet, stay on the current page if it still exists
+            final int page = Math.max(0, Math.min(mCurrentPageIndex, mAdapter.getCount() - 1));
+            mPageCount = mAdapter.getCount();
+            mCurrentPageIndex = PagerAdapter.POSITION_NONE;
+            mFlipDistance = INVALID_FLIP_DISTANCE;
+            setFlipDistance(page * FLIP_DISTANCE_PER_PAGE);
+            updateEmptyStatus();
+            return;
+        }
+        int newPosition = getAdapterPosition(getPage(mCurrentPageIndex));
 
         mPageCount = mAdapter.getCount();
+        releaseSnapshots();
+        resetInvalidatedFlip();
 
         if (newPosition == PagerAdapter.POSITION_NONE) {
+            // the current item is gone so start over at the first page, but
+            // keep the pages whose items are still part of that window
+            if (mPageCount > 0) {
+                mCurrentPageIndex = 0;
+                relocatePages(EMPTY_PAGE, mPages.length, true);
+            }
             mFlipDistance = INVALID_FLIP_DISTANCE;
             mCurrentPageIndex = PagerAdapter.POSITION_NONE;
             setFlipDistance(0);
@@ -250,28 +500,79 @@ public class FlipView extends FrameLayout {
         updateEmptyStatus();
     }
 
+    /**
+     * Pages in the range were rebound in place, only their snapshots are stale
+     */
+    private void itemRangeChanged(int positionStart, int itemCount) {
+        final int end = positionStart + itemCount;
+        for (Page page : mPages) {
+            if (page.valid && page.position >= positionStart && page.position < end) {
+                releaseSnapshot(page);
+            }
+        }
+        invalidate();
+    }
+
+    /**
+     * Items were inserted, removed or moved. The pages already know their new
+     * position so the window is shifted along with the current page, keeping
+     * any flip in progress, and only the pages that moved in or out of the
+     * window are instantiated or destroyed.
+     */
+    private void itemRangesMoved() {
+        final Page current = getPage(mCurrentPageIndex);
+        final int newPosition = getAdapterPosition(current);
+        if (newPosition < 0) {
+            // the current item is gone or unknown
+            dataSetChanged();
+            return;
+        }
+
+        mPageCount = mAdapter.getCount();
+        releaseSnapshots();
+        resetInvalidatedFlip();
+        endPeak();
+
+        final int delta = newPosition - mCurrentPageIndex;
+        if (delta != 0) {
+            final int shift = delta * FLIP_DISTANCE_PER_PAGE;
+            mFlipDistance += shift;
+            mCurrentPageIndex = newPosition;
+            mLastDispatchedPageEventIndex += delta;
+            if (mFlipAnimator.isRunning()) {
+                mFlipAnimator.offset(shift);
+            }
+        }
+
+        relocatePages(current, mPages.length, true);
+        populatePages();
+        // keep the current page on top of the neighbours that were just added
+        moveToFront(current.view);
+        invalidate();
+    }
+
     private void preservePages(int newPosition) {
+        final Page current = getPage(mCurrentPageIndex);
         preserveCurrentPage(newPosition);
-        updatePreviousPage(mCurrentPage.position);
-        updateNextPage(mCurrentPage.position);
-    }
-
-    private void updatePreviousPage(int newPosition) {
-        if (newPosition > 0) {
-            int previous = getAdapterPosition(mPreviousPage);
-            previous = previous == PagerAdapter.POSITION_UNCHANGED ? mPreviousPage.position : previous;
-            if (previous == PagerAdapter.POSITION_NONE || previous != newPosition - 1) {
-                previous = newPosition - 1;
-                destroyPage(mPreviousPage);
-                addView(mPreviousPage, previous);
-                removeView(mPreviousPage.view);
-                addView(mPreviousPage.view, 0);
-            }
-            mPreviousPage.position = previous;
-        } else {
-            destroyPage(mPreviousPage);
+        relocatePages(current, mPages.length, true);
+        populatePages();
+        // keep the current page on top of the neighbours that were just added
+        if (current.valid) {
+            moveToFront(current.view);
         }
+    }
 
+    /**
+     * Reorder without the layout pass of bringChildToFront(), the view keeps
+     * its size and position
+     */
+    private void moveToFront(View view) {
+        final int last = getChildCount() - 1;
+        if (getChildAt(last) != view) {
+            detachViewFromParent(view);
+            attachViewToParent(view, last, view.getLayoutParams());
+            invalidate();
+        }
     }
 
     private void preserveCurrentPage(int newPosition) {
@@ -280,37 +581,183 @@ public class FlipView extends FrameLayout {
         final int currentPageIndex = (int) Math.round(mFlipDistance
                 / FLIP_DISTANCE_PER_PAGE);
         newPosition = currentPageIndex;
-        mLastDispatchedPageEventIndex = mCurrentPageIndex = mCurrentPage.position = newPosition;
-    }
-
-    private void updateNextPage(int newPosition) {
-        if (newPosition < mPageCount - 1) {
-            int next = getAdapterPosition(mNextPage);
-            next = next == PagerAdapter.POSITION_UNCHANGED ? mNextPage.position : next;
-            if (next == PagerAdapter.POSITION_NONE || next != newPosition + 1) {
-                next = newPosition + 1;
-                destroyPage(mNextPage);
-                addView(mNextPage, next);
-                removeView(mNextPage.view);
-                addView(mNextPage.view, 0);
+        mLastDispatchedPageEventIndex = mCurrentPageIndex = newPosition;
+    }
+
+    /**
+     * Move the active pages into a ring buffer of the given size, placing them
+     * at the slots of their (possibly new) positions. Pages which no longer fit
+     * in the window around the current page are destroyed.
+     *
+     * @param current     the page which should end up at mCurrentPageIndex
+     * @param size        size of the new ring buffer
+     * @param dataChanged if true the adapter is asked for the new position of
+     *                    every page, else pages keep their position
+     */
+    private void relocatePages(Page current, int size, boolean dataChanged) {
+        final Page[] previous = mPages;
+        mPages = new Page[size];
+
+        if (current.valid && !movePage(current, mCurrentPageIndex)) {
+            destroyPage(current);
+        }
+        for (Page page : previous) {
+            if (page == current || !page.valid) {
+                continue;
+            }
+            int position = page.position;
+            if (dataChanged) {
+                position = getAdapterPosition(page);
+                position = position == PagerAdapter.POSITION_UNCHANGED ? page.position : position;
+            }
+            if (position == PagerAdapter.POSITION_NONE || !movePage(page, position)) {
+                destroyPage(page);
             }
-            mNextPage.position = next;
-        } else {
-            destroyPage(mNextPage);
         }
+
+        // hand out the unused pages to the empty slots
+        int slot = 0;
+        for (Page page : previous) {
+            if (!page.valid) {
+                while (slot < size && mPages[slot] != null) {
+                    slot++;
+                }
+                if (slot < size) {
+                    mPages[slot] = page;
+                }
+            }
+        }
+        for (; slot < size; slot++) {
+            if (mPages[slot] == null) {
+                mPages[slot] = new Page();
+            }
+        }
+    }
+
+    /**
+     * @return true if the page was placed in the slot for position
+     */
+    private boolean movePage(Page page, int position) {
+        if (position < 0 || position >= mPageCount
+                || Math.abs(position - mCurrentPageIndex) > mOffscreenPageLimit) {
+            return false;
+        }
+        final int slot = position % mPages.length;
+        if (mPages[slot] != null) {
+            return false;
+        }
+        page.position = position;
+        mPages[slot] = page;
+        return true;
+    }
+
+    /**
+     * Destroy the pages which fell out of the window around the current page
+     * and instantiate the ones missing from it. The current page is added
+     * first, then its neighbours ordered by distance. With idle prefetching
+     * only the pages needed to draw the current flip distance are added
+     * right away, the rest is left to the prefetcher.
+     */
+    private void populatePages() {
+        if (mPagesDeferred) {
+            return;
+        }
+        final int first = mCurrentPageIndex - mOffscreenPageLimit;
+        final int last = mCurrentPageIndex + mOffscreenPageLimit;
+        for (Page page : mPages) {
+            if (page.valid && (page.position < first || page.position > last
+                    || page.position >= mPageCount)) {
+                destroyPage(page);
+            }
+        }
+        if (mIdlePrefetch || mNeighboursDeferred) {
+            ensurePage(mCurrentPageIndex);
+            ensureFlippingPages();
+            if (mIdlePrefetch && getNextPrefetchPosition() >= 0) {
+                mPagePrefetcher.schedule(getFrameBudgetNanos());
+            }
+            return;
+        }
+        for (int offset = 0; offset <= mOffscreenPageLimit; offset++) {
+            ensurePage(mCurrentPageIndex + offset);
+            if (offset > 0) {
+                ensurePage(mCurrentPageIndex - offset);
+            }
+        }
+    }
+
+    /**
+     * Instantiate the pages the current flip distance is drawn with, in case
+     * the prefetcher did not get to them yet
+     */
+    private void ensureFlippingPages() {
+        if (mPagesDeferred) {
+            return;
+        }
+        ensurePage(FlipPhysics.getCurrentPageFloor(mFlipDistance));
+        ensurePage(FlipPhysics.getCurrentPageCeil(mFlipDistance));
+    }
+
+    /**
+     * @return the closest missing page of the window, pages in the direction
+     * of travel first, or -1 if the window is complete
+     */
+    private int getNextPrefetchPosition() {
+        if (mPagesDeferred) {
+            return -1;
+        }
+        for (int offset = 1; offset <= mOffscreenPageLimit; offset++) {
+            final int ahead = mCurrentPageIndex + mTravelDirection * offset;
+            if (ahead >= 0 && ahead < mPageCount && !getPage(ahead).valid) {
+                return ahead;
+            }
+            final int behind = mCurrentPageIndex - mTravelDirection * offset;
+            if (behind >= 0 && behind < mPageCount && !getPage(behind).valid) {
+                return behind;
+            }
+        }
+        return -1;
+    }
+
+    private int getPageViewType(int position) {
+        return mAdapter instanceof RecyclingPagerAdapter
+                ? ((RecyclingPagerAdapter<?>) mAdapter).getItemViewType(position) : 0;
     }
 
+    private void ensurePage(int position) {
+        if (position < 0 || position >= mPageCount) {
+            return;
+        }
+        final Page page = mPages[position % mPages.length];
+        if (!page.valid || page.position != position) {
+            destroyPage(page);
+            addView(page, position);
+        } else if (page.placeholder && position == mCurrentPageIndex) {
+            // flipped onto the page before it was prepared, do not settle on
+            // a blank view until the background work is done
+            destroyPage(page);
+            instantiatePage(page, position);
+        }
+    }
 
     private void dataSetInvalidated() {
         if (mAdapter != null) {
             mAdapter.unregisterDataSetObserver(dataSetObserver);
+            if (mAdapter instanceof RecyclingPagerAdapter) {
+                ((RecyclingPagerAdapter<?>) mAdapter).unregisterItemRangeObserver(itemRangeObserver);
+            }
             mAdapter = null;
         }
+        mPagesDeferred = false;
         removeAllViews();
     }
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        if (mPagesDeferred) {
+            mPagesDeferred = false;
+            populatePages();
+        }
         int width = getDefaultSize(0, widthMeasureSpec);
         int height = getDefaultSize(0, heightMeasureSpec);
 
@@ -331,7 +778,12 @@ public class FlipView extends FrameLayout {
         final int childCount = getChildCount();
         for (int i = 0; i < childCount; i++) {
             final View child = getChildAt(i);
-            measureChild(child, childWidthMeasureSpec, childHeightMeasureSpec);
+            // pages which kept their size and did not ask for a layout are
+            // measured already, only new or changed ones are measured again
+            if (child.isLayoutRequested() || child.getMeasuredWidth() != width
+                    || child.getMeasuredHeight() != height) {
+                measureChild(child, childWidthMeasureSpec, childHeightMeasureSpec);
+            }
         }
     }
 
@@ -344,33 +796,24 @@ public class FlipView extends FrameLayout {
     @Override
     protected void onLayout(boolean changed, int l, int t, int r, int b) {
         layoutChildren();
+    }
 
-        mTopRect.top = 0;
-        mTopRect.left = 0;
-        mTopRect.right = getWidth();
-        mTopRect.bottom = getHeight() / 2;
-
-        mBottomRect.top = getHeight() / 2;
-        mBottomRect.left = 0;
-        mBottomRect.right = getWidth();
-        mBottomRect.bottom = getHeight();
-
-        mLeftRect.top = 0;
-        mLeftRect.left = 0;
-        mLeftRect.right = getWidth() / 2;
-        mLeftRect.bottom = getHeight();
-
-        mRightRect.top = 0;
-        mRightRect.left = getWidth() / 2;
-        mRightRect.right = getWidth();
-        mRightRect.bottom = getHeight();
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        mFlipRenderer.onSizeChanged(w, h, mIsFlippingVertically);
     }
 
     private void layoutChildren() {
+        final int width = getWidth();
+        final int height = getHeight();
         final int childCount = getChildCount();
         for (int i = 0; i < childCount; i++) {
             final View child = getChildAt(i);
-            layoutChild(child);
+            if (child.isLayoutRequested() || child.getLeft() != 0 || child.getTop() != 0
+                    || child.getRight() != width || child.getBottom() != height) {
+                layoutChild(child);
+            }
         }
     }
 
@@ -396,97 +839,165 @@ public class FlipView extends FrameLayout {
 
         mFlipDistance = flipDistance;
 
-        final int currentPageIndex = (int) Math.round(mFlipDistance
-                / FLIP_DISTANCE_PER_PAGE);
+        final int currentPageIndex = FlipPhysics.getCurrentPageRound(mFlipDistance);
 
         if (mCurrentPageIndex != currentPageIndex) {
             boolean jump = mCurrentPageIndex < 0 || Math.abs(mCurrentPageIndex - currentPageIndex) != 1;
             boolean isNext = (currentPageIndex - mCurrentPageIndex) == 1;
+            if (mCurrentPageIndex >= 0) {
+                mTravelDirection = currentPageIndex > mCurrentPageIndex ? 1 : -1;
+            }
             mCurrentPageIndex = currentPageIndex;
 
 
-            // TODO be smarter about this. Dont remove a view that will be added
-            // again on the next line.
-            if (jump) {
-                removeActiveViews();
-
-                // add the new active views
-                if (mCurrentPageIndex > 0) {
-                    addView(mPreviousPage, mCurrentPageIndex - 1);
-                }
-                if (mCurrentPageIndex >= 0 && mCurrentPageIndex < mPageCount) {
-                    addView(mCurrentPage, mCurrentPageIndex);
-                }
-                if (mCurrentPageIndex < mPageCount - 1) {
-                    addView(mNextPage, mCurrentPageIndex + 1);
-                }
-            } else {
-                if (isNext) {
-                    destroyPage(mPreviousPage);
-                    copy(mCurrentPage, mPreviousPage);
-                    copy(mNextPage, mCurrentPage);
-                    if (mCurrentPageIndex < mPageCount - 1)
-                        addView(mNextPage, mCurrentPageIndex + 1);
-                    else {
-                        mNextPage.setInValid();
-                        mNextPage.position = -1;
-                        mNextPage.view = null;
-                        mNextPage.item = null;
-                    }
-                } else {
-                    destroyPage(mNextPage);
-                    copy(mCurrentPage, mNextPage);
-                    copy(mPreviousPage, mCurrentPage);
-                    if (mCurrentPageIndex > 0)
-                        addView(mPreviousPage, mCurrentPageIndex - 1);
-                    else {
-                        mPreviousPage.setInValid();
-                        mPreviousPage.position = -1;
-                        mPreviousPage.view = null;
-                        mPreviousPage.item = null;
-                    }
-                }
-                postFlippedToPage(mCurrentPage.position);
+            // pages which are still part of the window are kept, only the
+            // difference is instantiated and destroyed
+            populatePages();
+            if (!jump) {
+                postFlippedToPage(mCurrentPageIndex);
             }
 
+        } else if (mIdlePrefetch || mNeighboursDeferred) {
+            ensureFlippingPages();
         }
 
-        invalidate();
+        invalidateFlip();
+    }
+
+    /**
+     * Invalidate what the new flip distance changes. Nothing is invalidated
+     * if the flip did not move by a step of the matrix cache. With software
+     * rendering the renderer may narrow down the dirty area within a half
+     * turn, for the fold only the half the page is flipping over changes.
+     * Hardware accelerated views ignore dirty rects since API 21 and always
+     * redraw as a whole.
+     */
+    @SuppressWarnings("deprecation")
+    private void invalidateFlip() {
+        final float degreesFlipped = getDegreesFlipped();
+        final int step = Math.round(degreesFlipped * FlipMatrixCache.STEPS_PER_DEGREE);
+        final boolean previousHalf = degreesFlipped > 90;
+        if (mCurrentPageIndex == mInvalidatedPage && step == mInvalidatedStep
+                && previousHalf == mInvalidatedPreviousHalf) {
+            return;
+        }
+        if (mCurrentPageIndex != mInvalidatedPage || previousHalf != mInvalidatedPreviousHalf
+                || isHardwareAccelerated()) {
+            invalidate();
+        } else {
+            mDirtyRect.set(0, 0, getWidth(), getHeight());
+            mFlipRenderer.getDirtyBounds(degreesFlipped, mDirtyRect);
+            invalidate(mDirtyRect);
+        }
+        mInvalidatedPage = mCurrentPageIndex;
+        mInvalidatedStep = step;
+        mInvalidatedPreviousHalf = previousHalf;
     }
 
-    private void copy(Page from, Page to) {
-        if (from.valid) {
-            to.setValid();
-        } else to.setInValid();
-//        to.valid = from.valid;
-        to.view = from.view;
-        to.position = from.position;
-        to.item = from.item;
+    /**
+     * Make the next invalidateFlip() invalidate, after anything that changes
+     * what a flip draws other than the flip distance
+     */
+    private void resetInvalidatedFlip() {
+        mInvalidatedPage = PagerAdapter.POSITION_NONE;
     }
 
     private void addView(Page page, int index) {
+        if (shouldPreparePage(index)) {
+            addPlaceholder(page, index);
+        } else {
+            instantiatePage(page, index);
+        }
+    }
+
+    private void instantiatePage(Page page, int index) {
+        releaseSnapshot(page);
         page.position = index;
+        final long start = System.nanoTime();
         page.item = mAdapter.instantiateItem(this, page.position);
+        final long duration = System.nanoTime() - start;
+        if (mFlipMetrics != null) {
+            mFlipMetrics.addInstantiateItem(duration);
+        }
+        if (mPagePrefetcher != null) {
+            mPagePrefetcher.recordBindCost(getPageViewType(index), duration);
+        }
         page.view = getChildAt(getChildCount() - 1);
+        page.placeholder = false;
+        page.setValid();
+        updatePageVisibility(page);
+        mLayersWarm = false;
+    }
+
+    /**
+     * New and recycled pages start out the way the next draw wants them, so
+     * it does not have to toggle their visibility
+     */
+    private void updatePageVisibility(Page page) {
+        final boolean visible = page.position == mCurrentPageIndex
+                || isFlipping() || mFlipAnimator.isRunning() || mPeaking;
+        page.view.setVisibility(visible ? VISIBLE : INVISIBLE);
+    }
+
+    /**
+     * @return true if the page at position should be inflated in the
+     * background while a placeholder is shown. The current page is always
+     * instantiated right away
+     */
+    private boolean shouldPreparePage(int position) {
+        return mAsyncPagePreparation && position != mCurrentPageIndex
+                && mAdapter instanceof RecyclingPagerAdapter
+                && !((RecyclingPagerAdapter<?>) mAdapter).hasRecycledPage(position);
+    }
+
+    private void addPlaceholder(Page page, int index) {
+        final RecyclingPagerAdapter<?> adapter = (RecyclingPagerAdapter<?>) mAdapter;
+        releaseSnapshot(page);
+        page.position = index;
+        page.item = null;
+        page.view = new View(getContext());
+        page.placeholder = true;
         page.setValid();
+        updatePageVisibility(page);
+        addView(page.view);
+        if (mPagePreparer == null) {
+            mPagePreparer = new PagePreparer(this, this::onPagePrepared);
+        }
+        mPagePreparer.prepare(adapter, index, adapter.getItemViewType(index));
+    }
+
+    private void onPagePrepared(int position) {
+        final Page page = getPage(position);
+        if (page.placeholder) {
+            destroyPage(page);
+            instantiatePage(page, position);
+            invalidate();
+        }
     }
 
     private void destroyPage(Page page) {
         if (page.valid) {
-            if (mAdapter != null)
+            if (mAdapter != null && !page.placeholder) {
+                final long start = System.nanoTime();
                 mAdapter.destroyItem(this, page.position, page.item);
+                if (mFlipMetrics != null) {
+                    mFlipMetrics.addDestroyItem(System.nanoTime() - start);
+                }
+            }
 //            mPreviousPage.view = null;
             removeView(page.view);
+            releaseSnapshot(page);
             page.view = null;
+            page.placeholder = false;
             page.setInValid();
         }
     }
 
     private void removeActiveViews() {
         // remove and recycle the currently active views
-        destroyPage(mPreviousPage);
-        destroyPage(mCurrentPage);
-        destroyPage(mNextPage);
+        for (Page page : mPages) {
+            destroyPage(page);
+        }
     }
 
     @Override
@@ -507,10 +1018,7 @@ public class FlipView extends FrameLayout {
             setFlipping(false);
             mIsUnableToFlip = false;
             mActivePointerId = INVALID_POINTER;
-            if (mVelocityTracker != null) {
-                mVelocityTracker.recycle();
-                mVelocityTracker = null;
-            }
+            resetVelocityTracker();
             return false;
         }
 
@@ -560,7 +1068,7 @@ public class FlipView extends FrameLayout {
                 mLastX = MotionEventCompat.getX(ev, mActivePointerId);
                 mLastY = MotionEventCompat.getY(ev, mActivePointerId);
 
-                setFlipping(!mScroller.isFinished() | mPeakAnim != null);
+                setFlipping(mFlipAnimator.isRunning() | mPeaking);
                 mIsUnableToFlip = false;
                 mLastTouchAllowed = true;
 
@@ -658,8 +1166,8 @@ public class FlipView extends FrameLayout {
                         deltaFlipDistance = deltaX;
                     }
 
-                    deltaFlipDistance /= ((isFlippingVertically() ? getHeight()
-                            : getWidth()) / FLIP_DISTANCE_PER_PAGE);
+                    deltaFlipDistance = FlipPhysics.toFlipDistance(deltaFlipDistance,
+                            isFlippingVertically() ? getHeight() : getWidth());
                     setFlipDistance(mFlipDistance + deltaFlipDistance);
 
                     final int minFlipDistance = 0;
@@ -704,7 +1212,9 @@ public class FlipView extends FrameLayout {
                         velocity = (int) VelocityTrackerCompat.getXVelocity(
                                 velocityTracker, mActivePointerId);
                     }
-                    smoothFlipTo(getNextPage(velocity));
+                    final float flipVelocity = -FlipPhysics.toFlipDistance(velocity,
+                            isFlippingVertically() ? getHeight() : getWidth());
+                    smoothFlipTo(getNextPage(velocity), flipVelocity);
 
                     mActivePointerId = INVALID_POINTER;
                     endFlip();
@@ -739,191 +1249,240 @@ public class FlipView extends FrameLayout {
 
     @Override
     protected void dispatchDraw(Canvas canvas) {
+        if (mFlipMetrics != null && mFlipMetrics.isTracking()) {
+            final long start = System.nanoTime();
+            drawPages(canvas);
+            mFlipMetrics.addDispatchDraw(System.nanoTime() - start);
+        } else {
+            drawPages(canvas);
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private void drawPages(Canvas canvas) {
 
         if (mPageCount < 1) {
             return;
         }
 
-        if (!mScroller.isFinished() && mScroller.computeScrollOffset()) {
-            setFlipDistance(mScroller.getCurrY());
-        }
-
-        if (isFlipping() || !mScroller.isFinished() || mPeakAnim != null) {
+        if (isFlipping() || mFlipAnimator.isRunning() || mPeaking) {
+            mLayersWarm = false;
             showAllPages();
-            drawPreviousHalf(canvas);
-            drawNextHalf(canvas);
-            drawFlippingHalf(canvas);
+            updateFlipFrame();
+            mFlipRenderer.draw(canvas, mFlipFrame);
+            // debug builds report the page area drawn as FlipMetrics#getPageOverdraw()
+            if (BuildConfig.DEBUG && mFlipMetrics != null && mFlipMetrics.isTracking()) {
+                mFlipMetrics.addDrawnPixels(mFlipFrame.drawnPixels, (long) getWidth() * getHeight());
+            }
         } else {
             endScroll();
-            setDrawWithLayer(mCurrentPage.view, false);
-            hideOtherPages(mCurrentPage);
-            drawChild(canvas, mCurrentPage.view, 0);
+            releaseSnapshots();
+            final Page current = getPage(mCurrentPageIndex);
+            setDrawWithLayer(current.view, false);
+            hideOtherPages(current);
+            scheduleLayerWarmup();
+            scheduleNeighbourFill();
+            if (current.valid) {
+                drawChild(canvas, current.view, 0);
+            }
             postFlippedToPage(mCurrentPageIndex);
+            if (mFlipMetrics != null) {
+                mFlipMetrics.end();
+            }
         }
 
         // if overflip is GLOW mode and the edge effects needed drawing, make
         // sure to invalidate
         if (mOverFlipper.draw(canvas)) {
-            // always invalidate whole screen as it is needed 99% of the time.
-            // This is because of the shadows and shines put on the non-flipping
-            // pages
-            invalidate();
+            if (isHardwareAccelerated()) {
+                invalidate();
+            } else {
+                mDirtyRect.set(0, 0, getWidth(), getHeight());
+                mOverFlipper.getDirtyBounds(mDirtyRect);
+                invalidate(mDirtyRect);
+            }
         }
     }
 
+    /**
+     * Pages behind the current one are made INVISIBLE rather than GONE so
+     * they keep their layout and toggling them never requests one, it only
+     * keeps them from taking touches and accessibility focus
+     */
     private void hideOtherPages(Page p) {
-        if (mPreviousPage != p && mPreviousPage.valid && mPreviousPage.view.getVisibility() != GONE) {
-            mPreviousPage.view.setVisibility(GONE);
-        }
-        if (mCurrentPage != p && mCurrentPage.valid && mCurrentPage.view.getVisibility() != GONE) {
-            mCurrentPage.view.setVisibility(GONE);
-        }
-        if (mNextPage != p && mNextPage.valid && mNextPage.view.getVisibility() != GONE) {
-            mNextPage.view.setVisibility(GONE);
+        for (Page page : mPages) {
+            if (page != p && page.valid && page.view.getVisibility() != INVISIBLE) {
+                page.view.setVisibility(INVISIBLE);
+            }
         }
-        if (p.view != null)
+        if (p.view != null && p.view.getVisibility() != VISIBLE)
             p.view.setVisibility(VISIBLE);
     }
 
     private void showAllPages() {
-        if (mPreviousPage.valid && mPreviousPage.view.getVisibility() != VISIBLE) {
-            mPreviousPage.view.setVisibility(VISIBLE);
-        }
-        if (mCurrentPage.valid && mCurrentPage.view.getVisibility() != VISIBLE) {
-            mCurrentPage.view.setVisibility(VISIBLE);
-        }
-        if (mNextPage.valid && mNextPage.view.getVisibility() != VISIBLE) {
-            mNextPage.view.setVisibility(VISIBLE);
+        for (Page page : mPages) {
+            if (page.valid && page.view.getVisibility() != VISIBLE) {
+                page.view.setVisibility(VISIBLE);
+            }
         }
     }
 
     /**
-     * draw top/left half
-     *
-     * @param canvas
+     * The flip is between the current page and the one it is flipping
+     * towards, the previous one past 90 degrees
      */
-    private void drawPreviousHalf(Canvas canvas) {
-        canvas.save();
-        canvas.clipRect(isFlippingVertically() ? mTopRect : mLeftRect);
-
+    private void updateFlipFrame() {
+        final FlipFrame frame = mFlipFrame;
         final float degreesFlipped = getDegreesFlipped();
-        final Page p = degreesFlipped > 90 ? mPreviousPage : mCurrentPage;
-
-        // if the view does not exist, skip drawing it
-        if (p.valid) {
-            setDrawWithLayer(p.view, true);
-            drawChild(canvas, p.view, 0);
+        final Page current = getPage(mCurrentPageIndex);
+        frame.degreesFlipped = degreesFlipped;
+        if (degreesFlipped > 90) {
+            frame.previousPage = getPage(mCurrentPageIndex - 1);
+            frame.nextPage = current;
+        } else {
+            frame.previousPage = current;
+            frame.nextPage = getPage(mCurrentPageIndex + 1);
         }
-
-        drawPreviousShadow(canvas);
-        canvas.restore();
+        frame.width = getWidth();
+        frame.height = getHeight();
+        frame.vertical = mIsFlippingVertically;
+        frame.occlusionCulling = mOcclusionCulling;
+        frame.shadows = getRenderQuality().compareTo(RenderQuality.NO_SHADOWS) < 0;
+        frame.drawnPixels = 0;
     }
 
     /**
-     * draw top/left half shadow
+     * Draw a page while flipping, either as its view or as a snapshot which
+     * is captured the first time the page is drawn during the flip.
      *
-     * @param canvas
+     * @param alpha 0 to 255, anything below 255 draws a view through an
+     *              offscreen layer
      */
-    private void drawPreviousShadow(Canvas canvas) {
-        final float degreesFlipped = getDegreesFlipped();
-        if (degreesFlipped > 90) {
-            final int alpha = (int) (((degreesFlipped - 90) / 90f) * MAX_SHADOW_ALPHA);
-            mShadowPaint.setAlpha(alpha);
-            canvas.drawPaint(mShadowPaint);
+    @SuppressWarnings("deprecation")
+    void drawPage(Canvas canvas, Page page, int alpha) {
+        if (isDrawingSnapshots() && !page.placeholder) {
+            if (page.snapshot == null) {
+                page.snapshot = mSnapshotPool.isEmpty() ? new PageSnapshot()
+                        : mSnapshotPool.remove(mSnapshotPool.size() - 1);
+                page.snapshot.capture(page.view, getEffectiveSnapshotScale(),
+                        mOpaqueSnapshots && !page.placeholder);
+            }
+            page.snapshot.draw(canvas, alpha);
+        } else {
+            setDrawWithLayer(page.view, isDrawingWithLayers());
+            if (alpha < 255) {
+                canvas.saveLayerAlpha(0, 0, getWidth(), getHeight(), alpha, Canvas.ALL_SAVE_FLAG);
+                drawChild(canvas, page.view, 0);
+                canvas.restore();
+            } else {
+                drawChild(canvas, page.view, 0);
+            }
         }
     }
 
     /**
-     * draw bottom/right half
-     *
-     * @param canvas
+     * Give the snapshot of page back to the pool, the bitmap is kept for
+     * the next capture
      */
-    private void drawNextHalf(Canvas canvas) {
-        canvas.save();
-        canvas.clipRect(isFlippingVertically() ? mBottomRect : mRightRect);
-
-        final float degreesFlipped = getDegreesFlipped();
-        final Page p = degreesFlipped > 90 ? mCurrentPage : mNextPage;
-
-        // if the view does not exist, skip drawing it
-        if (p.valid) {
-            setDrawWithLayer(p.view, true);
-            drawChild(canvas, p.view, 0);
+    private void releaseSnapshot(Page page) {
+        if (page.snapshot != null) {
+            mSnapshotPool.add(page.snapshot);
+            page.snapshot = null;
         }
+    }
 
-        drawNextShadow(canvas);
-        canvas.restore();
+    private void releaseSnapshots() {
+        for (Page page : mPages) {
+            releaseSnapshot(page);
+        }
     }
 
     /**
-     * draw bottom/right half shadow
-     *
-     * @param canvas
+     * Free the bitmaps of all snapshots
      */
-    private void drawNextShadow(Canvas canvas) {
-        final float degreesFlipped = getDegreesFlipped();
-        if (degreesFlipped < 90) {
-            final int alpha = (int) ((Math.abs(degreesFlipped - 90) / 90f) * MAX_SHADOW_ALPHA);
-            mShadowPaint.setAlpha(alpha);
-            canvas.drawPaint(mShadowPaint);
+    private void recycleSnapshots() {
+        releaseSnapshots();
+        for (PageSnapshot snapshot : mSnapshotPool) {
+            snapshot.release();
         }
+        mSnapshotPool.clear();
     }
 
-    private void drawFlippingHalf(Canvas canvas) {
-        canvas.save();
-        mCamera.save();
+    /**
+     * Build the layers of the neighbours once the main thread has nothing
+     * else to do, so they are not rasterized on the first frame of a flip
+     */
+    private void scheduleLayerWarmup() {
+        if (mLayerPolicy == LayerPolicy.KEEP_WARM && !mLayersWarm && !mLayerWarmupScheduled
+                && isDrawingWithLayers() && isHardwareAccelerated()) {
+            mLayerWarmupScheduled = true;
+            Looper.myQueue().addIdleHandler(mLayerWarmer);
+        }
+    }
 
-        final float degreesFlipped = getDegreesFlipped();
+    private void cancelLayerWarmup() {
+        if (mLayerWarmupScheduled) {
+            mLayerWarmupScheduled = false;
+            Looper.myQueue().removeIdleHandler(mLayerWarmer);
+        }
+    }
 
-        if (degreesFlipped > 90) {
-            canvas.clipRect(isFlippingVertically() ? mTopRect : mLeftRect);
-            if (mIsFlippingVertically) {
-                mCamera.rotateX(degreesFlipped - 180);
-            } else {
-                mCamera.rotateY(180 - degreesFlipped);
-            }
-        } else {
-            canvas.clipRect(isFlippingVertically() ? mBottomRect : mRightRect);
-            if (mIsFlippingVertically) {
-                mCamera.rotateX(degreesFlipped);
-            } else {
-                mCamera.rotateY(-degreesFlipped);
+    private void warmUpLayers() {
+        if (mLayerPolicy != LayerPolicy.KEEP_WARM || !isDrawingWithLayers()
+                || !ViewCompat.isAttachedToWindow(this)
+                || isFlipping() || mFlipAnimator.isRunning() || mPeaking) {
+            return;
+        }
+        for (int offset = -1; offset <= 1; offset += 2) {
+            final Page page = getPage(mCurrentPageIndex + offset);
+            if (page.valid && !page.placeholder) {
+                setDrawWithLayer(page.view, true);
+                page.view.buildLayer();
             }
         }
+        mLayersWarm = true;
+    }
 
-        mCamera.getMatrix(mMatrix);
-
-        positionMatrix();
-        canvas.concat(mMatrix);
+    private void scheduleNeighbourFill() {
+        if (mNeighboursDeferred && !mNeighbourFillScheduled) {
+            mNeighbourFillScheduled = true;
+            Looper.myQueue().addIdleHandler(mNeighbourFiller);
+        }
+    }
 
-        setDrawWithLayer(mCurrentPage.view, true);
-        drawChild(canvas, mCurrentPage.view, 0);
+    private void cancelNeighbourFill() {
+        if (mNeighbourFillScheduled) {
+            mNeighbourFillScheduled = false;
+            Looper.myQueue().removeIdleHandler(mNeighbourFiller);
+        }
+    }
 
-        drawFlippingShadeShine(canvas);
+    private void fillDeferredNeighbours() {
+        if (!mNeighboursDeferred) {
+            return;
+        }
+        mNeighboursDeferred = false;
+        if (mAdapter != null && mPageCount > 0) {
+            populatePages();
+            scheduleLayerWarmup();
+        }
+    }
 
-        mCamera.restore();
-        canvas.restore();
+    private boolean isDrawingSnapshots() {
+        return mSnapshotRendering
+                || getRenderQuality().compareTo(RenderQuality.SNAPSHOTS) >= 0;
     }
 
-    /**
-     * will draw a shade if flipping on the previous(top/left) half and a shine
-     * if flipping on the next(bottom/right) half
-     *
-     * @param canvas
-     */
-    private void drawFlippingShadeShine(Canvas canvas) {
-        final float degreesFlipped = getDegreesFlipped();
-        if (degreesFlipped < 90) {
-            final int alpha = (int) ((degreesFlipped / 90f) * MAX_SHINE_ALPHA);
-            mShinePaint.setAlpha(alpha);
-            canvas.drawRect(isFlippingVertically() ? mBottomRect : mRightRect,
-                    mShinePaint);
-        } else {
-            final int alpha = (int) ((Math.abs(degreesFlipped - 180) / 90f) * MAX_SHADE_ALPHA);
-            mShadePaint.setAlpha(alpha);
-            canvas.drawRect(isFlippingVertically() ? mTopRect : mLeftRect,
-                    mShadePaint);
+    private float getEffectiveSnapshotScale() {
+        if (getRenderQuality() == RenderQuality.LOW_RES_SNAPSHOTS) {
+            return Math.min(mSnapshotScale, LOW_RES_SNAPSHOT_SCALE);
         }
+        return mSnapshotScale;
+    }
+
+    private boolean isDrawingWithLayers() {
+        return mLayerPolicy != LayerPolicy.NEVER
+                && getRenderQuality().compareTo(RenderQuality.NO_LAYERS) < 0;
     }
 
     /**
@@ -942,22 +1501,8 @@ public class FlipView extends FrameLayout {
         }
     }
 
-    private void positionMatrix() {
-        mMatrix.preScale(0.25f, 0.25f);
-        mMatrix.postScale(4.0f, 4.0f);
-        mMatrix.preTranslate(-getWidth() / 2, -getHeight() / 2);
-        mMatrix.postTranslate(getWidth() / 2, getHeight() / 2);
-    }
-
     private float getDegreesFlipped() {
-        float localFlipDistance = mFlipDistance % FLIP_DISTANCE_PER_PAGE;
-
-        // fix for negative modulo. always want a positive flip degree
-        if (localFlipDistance < 0) {
-            localFlipDistance += FLIP_DISTANCE_PER_PAGE;
-        }
-
-        return (localFlipDistance / FLIP_DISTANCE_PER_PAGE) * 180;
+        return FlipPhysics.getDegreesFlipped(mFlipDistance);
     }
 
     private void postFlippedToPage(final int page) {
@@ -966,23 +1511,125 @@ public class FlipView extends FrameLayout {
             return;
         }
         flipNotificationPending = false;
-        if (mLastDispatchedPageEventIndex != page && mCurrentPage.valid) {
+        final Page current = getPage(page);
+        if (mLastDispatchedPageEventIndex != page && current.valid && !current.placeholder) {
             boolean canNotify = mLastDispatchedPageEventIndex >= 0;
             mLastDispatchedPageEventIndex = page;
             try {
-                mAdapter.setPrimaryItem(this, page, mCurrentPage.item);
+                mAdapter.setPrimaryItem(this, page, current.item);
             }
             catch (Exception e) {
                 e.printStackTrace();
                 return;
             }
             if (canNotify) {
-                post(() -> {
-                    if (mOnFlipListener != null) {
-                        mOnFlipListener.onFlippedToPage(FlipView.this, page);
-                    }
-                });
+                queueFlipNotification(page);
+            }
+        }
+    }
+
+    /**
+     * Every page gets its own onFlippedToPage, a fast flip over several pages
+     * reports each of them in order
+     */
+    private void queueFlipNotification(int page) {
+        if (mFlipNotificationCount == mFlipNotificationPages.length) {
+            mFlipNotificationPages = Arrays.copyOf(mFlipNotificationPages, mFlipNotificationCount * 2);
+        }
+        mFlipNotificationPages[mFlipNotificationCount++] = page;
+        if (!mFlipNotifierPosted) {
+            mFlipNotifierPosted = true;
+            post(mFlipNotifier);
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        // work for these was dropped when the view got detached
+        for (Page page : mPages) {
+            if (page.placeholder) {
+                final RecyclingPagerAdapter<?> adapter = (RecyclingPagerAdapter<?>) mAdapter;
+                mPagePreparer.prepare(adapter, page.position, adapter.getItemViewType(page.position));
+            }
+        }
+        if (mIdlePrefetch && mAdapter != null && getNextPrefetchPosition() >= 0) {
+            mPagePrefetcher.schedule(getFrameBudgetNanos());
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        if (mPagePreparer != null) {
+            mPagePreparer.quit();
+        }
+        if (mFlipMetrics != null) {
+            mFlipMetrics.cancel();
+        }
+        cancelLayerWarmup();
+        // rescheduled by the next draw
+        cancelNeighbourFill();
+        mLayersWarm = false;
+        if (mPagePrefetcher != null) {
+            mPagePrefetcher.cancel();
+        }
+        if (mFlipAnimator.isRunning()) {
+            // frame callbacks keep coming while detached, land right away
+            mFlipAnimator.cancel();
+            setFlipDistance(mFlipAnimator.getTarget());
+        }
+        if (mVelocityTracker != null) {
+            mVelocityTracker.recycle();
+            mVelocityTracker = null;
+        }
+        recycleSnapshots();
+    }
+
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        final SavedState ss = new SavedState(super.onSaveInstanceState());
+        ss.position = mCurrentPageIndex;
+        if (mAdapter != null) {
+            ss.adapterState = mAdapter.saveState();
+            if (mPendingRestoredPage != PagerAdapter.POSITION_NONE) {
+                // saved again before the restored page was loaded
+                ss.position = mPendingRestoredPage;
+            }
+        } else if (mRestoredPage != PagerAdapter.POSITION_NONE) {
+            ss.position = mRestoredPage;
+            ss.adapterState = mRestoredAdapterState;
+        }
+        return ss;
+    }
+
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        final SavedState ss = (SavedState) state;
+        super.onRestoreInstanceState(ss.getSuperState());
+        if (mAdapter != null) {
+            mAdapter.restoreState(ss.adapterState, ss.loader);
+            if (ss.position >= 0 && ss.position < mPageCount) {
+                flipTo(ss.position);
+            } else if (ss.position > 0) {
+                // the adapter has not loaded that far yet
+                mPendingRestoredPage = ss.position;
             }
+        } else {
+            mRestoredPage = ss.position;
+            mRestoredAdapterState = ss.adapterState;
+            mRestoredClassLoader = ss.loader;
+        }
+    }
+
+    private void applyPendingRestoredPage() {
+        if (mPendingRestoredPage != PagerAdapter.POSITION_NONE
+                && mPendingRestoredPage < mPageCount) {
+            flipTo(mPendingRestoredPage);
         }
     }
 
@@ -992,6 +1639,25 @@ public class FlipView extends FrameLayout {
         this.storedVisibility = visibility;
     }
 
+    /**
+     * Start collecting metrics for a flip which is about to start, does
+     * nothing if no one is listening or a flip is already tracked
+     */
+    private void startFlipMetrics() {
+        if (mFlipMetrics != null) {
+            mFlipMetrics.start(getFrameBudgetNanos());
+        }
+    }
+
+    private long getFrameBudgetNanos() {
+        final Display display = ViewCompat.getDisplay(this);
+        float refreshRate = display != null ? display.getRefreshRate() : 0;
+        if (refreshRate < 1) {
+            refreshRate = DEFAULT_REFRESH_RATE;
+        }
+        return (long) (1000000000L / refreshRate);
+    }
+
     private void onSecondaryPointerUp(MotionEvent ev) {
         final int pointerIndex = MotionEventCompat.getActionIndex(ev);
         final int pointerId = MotionEventCompat.getPointerId(ev, pointerIndex);
@@ -1008,44 +1674,13 @@ public class FlipView extends FrameLayout {
         }
     }
 
-    /**
-     * @param deltaFlipDistance The distance to flip.
-     * @return The duration for a flip, bigger deltaFlipDistance = longer
-     * duration. The increase if duration gets smaller for bigger values
-     * of deltaFlipDistance.
-     */
-    private int getFlipDuration(int deltaFlipDistance) {
-        float distance = Math.abs(deltaFlipDistance);
-        return (int) (MAX_SINGLE_PAGE_FLIP_ANIM_DURATION * Math.sqrt(distance
-                / FLIP_DISTANCE_PER_PAGE));
-    }
-
     /**
      * @param velocity
      * @return the page you should "land" on
      */
     private int getNextPage(int velocity) {
-        int nextPage;
-        if (velocity > mMinimumVelocity) {
-            nextPage = getCurrentPageFloor();
-        } else if (velocity < -mMinimumVelocity) {
-            nextPage = getCurrentPageCeil();
-        } else {
-            nextPage = getCurrentPageRound();
-        }
-        return Math.min(Math.max(nextPage, 0), mPageCount - 1);
-    }
-
-    private int getCurrentPageRound() {
-        return Math.round(mFlipDistance / FLIP_DISTANCE_PER_PAGE);
-    }
-
-    private int getCurrentPageFloor() {
-        return (int) Math.floor(mFlipDistance / FLIP_DISTANCE_PER_PAGE);
-    }
-
-    private int getCurrentPageCeil() {
-        return (int) Math.ceil(mFlipDistance / FLIP_DISTANCE_PER_PAGE);
+        return FlipPhysics.getNextPage(mFlipDistance, velocity, mMinimumVelocity,
+                mMaximumVelocity, mMaxFlingPages, mPageCount);
     }
 
     /**
@@ -1057,10 +1692,7 @@ public class FlipView extends FrameLayout {
         mIsUnableToFlip = false;
         mLastTouchAllowed = false;
 
-        if (mVelocityTracker != null) {
-            mVelocityTracker.recycle();
-            mVelocityTracker = null;
-        }
+        resetVelocityTracker();
         return wasflipping;
     }
 
@@ -1068,8 +1700,8 @@ public class FlipView extends FrameLayout {
      * @return true if ended a scroll
      */
     private boolean endScroll() {
-        final boolean wasScrolling = !mScroller.isFinished();
-        mScroller.abortAnimation();
+        final boolean wasScrolling = mFlipAnimator.isRunning();
+        mFlipAnimator.cancel();
         return wasScrolling;
     }
 
@@ -1077,38 +1709,45 @@ public class FlipView extends FrameLayout {
      * @return true if ended a peak
      */
     private boolean endPeak() {
-        final boolean wasPeaking = mPeakAnim != null;
-        if (mPeakAnim != null) {
+        final boolean wasPeaking = mPeaking;
+        if (mPeaking) {
+            mPeaking = false;
             mPeakAnim.cancel();
-            mPeakAnim = null;
         }
         return wasPeaking;
     }
 
     private void peak(boolean next, boolean once) {
+        endPeak();
         final float baseFlipDistance = mCurrentPageIndex
                 * FLIP_DISTANCE_PER_PAGE;
-        if (next) {
-            mPeakAnim = ValueAnimator.ofFloat(baseFlipDistance,
-                    baseFlipDistance + FLIP_DISTANCE_PER_PAGE / 4);
-        } else {
-            mPeakAnim = ValueAnimator.ofFloat(baseFlipDistance,
-                    baseFlipDistance - FLIP_DISTANCE_PER_PAGE / 4);
+        if (mPeakAnim == null) {
+            mPeakAnim = ValueAnimator.ofFloat(0, 1);
+            mPeakAnim.setInterpolator(mPeakInterpolator);
+            mPeakAnim.addUpdateListener(animation -> setFlipDistance(mPeakStartDistance
+                    + (mPeakEndDistance - mPeakStartDistance) * animation.getAnimatedFraction()));
+            mPeakAnim.addListener(new AnimatorListenerAdapter() {
+                @Override
+                public void onAnimationEnd(Animator animation) {
+                    endPeak();
+                }
+            });
+            mPeakAnim.setDuration(PEAK_ANIM_DURATION);
+            mPeakAnim.setRepeatMode(ValueAnimator.REVERSE);
         }
-        mPeakAnim.setInterpolator(mPeakInterpolator);
-        mPeakAnim.addUpdateListener(animation -> setFlipDistance((Float) animation.getAnimatedValue()));
-        mPeakAnim.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                endPeak();
-            }
-        });
-        mPeakAnim.setDuration(PEAK_ANIM_DURATION);
-        mPeakAnim.setRepeatMode(ValueAnimator.REVERSE);
+        mPeakStartDistance = baseFlipDistance;
+        mPeakEndDistance = next ? baseFlipDistance + FLIP_DISTANCE_PER_PAGE / 4
+                : baseFlipDistance - FLIP_DISTANCE_PER_PAGE / 4;
         mPeakAnim.setRepeatCount(once ? 1 : ValueAnimator.INFINITE);
+        mPeaking = true;
+        startFlipMetrics();
         mPeakAnim.start();
     }
 
+    /**
+     * The tracker is obtained once and cleared between gestures so tracking
+     * touches does not allocate, it is recycled when the view is detached
+     */
     private void trackVelocity(MotionEvent ev) {
         if (mVelocityTracker == null) {
             mVelocityTracker = VelocityTracker.obtain();
@@ -1116,6 +1755,22 @@ public class FlipView extends FrameLayout {
         mVelocityTracker.addMovement(ev);
     }
 
+    private void resetVelocityTracker() {
+        if (mVelocityTracker != null) {
+            mVelocityTracker.clear();
+        }
+    }
+
+    /**
+     * size the scrap of a recycling adapter to the window, that is the most
+     * pages that can be destroyed at once
+     */
+    private void updateMaxRecycledPages() {
+        if (mAdapter instanceof RecyclingPagerAdapter) {
+            ((RecyclingPagerAdapter<?>) mAdapter).setMaxRecycledPages(mPages.length);
+        }
+    }
+
     private void updateEmptyStatus() {
         boolean empty = mAdapter == null || mPageCount == 0;
 
@@ -1145,28 +1800,79 @@ public class FlipView extends FrameLayout {
      *                used by the flipview
      */
     public void setAdapter(PagerAdapter adapter) {
+        setAdapter(adapter, 0);
+    }
+
+    /**
+     * Set the adapter and start at initialPage, only initialPage and its
+     * neighbours are instantiated. A page restored by
+     * {@link #onRestoreInstanceState(Parcelable)} before any adapter was set
+     * takes precedence over initialPage.
+     * <p>
+     * Before the view was laid out for the first time no page is
+     * instantiated until it is measured, so view state restored after
+     * onCreate only builds the restored page and its neighbours. A view laid
+     * out before starts at initialPage right away and jumps to a page
+     * restored afterwards, pass the page from the app's own saved state here
+     * to avoid that. A restored page the adapter does not have yet is applied
+     * once a data change adds it, unless the user flips first.
+     *
+     * @param initialPage clamped to the pages of the adapter
+     */
+    public void setAdapter(PagerAdapter adapter, int initialPage) {
         if (mAdapter != null) {
             mAdapter.unregisterDataSetObserver(dataSetObserver);
+            if (mAdapter instanceof RecyclingPagerAdapter) {
+                ((RecyclingPagerAdapter<?>) mAdapter).unregisterItemRangeObserver(itemRangeObserver);
+            }
+        }
+        if (mPagePreparer != null) {
+            mPagePreparer.cancel();
         }
         mCurrentPageIndex = 0;
         mLastDispatchedPageEventIndex = -1;
+        mPendingRestoredPage = PagerAdapter.POSITION_NONE;
 
         // remove all the current views
         removeActiveViews();
 
 
         mAdapter = adapter;
+
+        if (adapter != null && mRestoredPage != PagerAdapter.POSITION_NONE) {
+            adapter.restoreState(mRestoredAdapterState, mRestoredClassLoader);
+            initialPage = mRestoredPage;
+            mRestoredPage = PagerAdapter.POSITION_NONE;
+            mRestoredAdapterState = null;
+            mRestoredClassLoader = null;
+            if (initialPage >= adapter.getCount()) {
+                // the adapter has not loaded that far yet
+                mPendingRestoredPage = initialPage;
+            }
+        }
         mPageCount = adapter == null ? 0 : mAdapter.getCount();
 
         if (adapter != null) {
             mAdapter.registerDataSetObserver(dataSetObserver);
+            if (mAdapter instanceof RecyclingPagerAdapter) {
+                ((RecyclingPagerAdapter<?>) mAdapter).registerItemRangeObserver(itemRangeObserver);
+            }
+            updateMaxRecycledPages();
         }
 
         // TODO pretty confusing
         // this will be correctly set in setFlipDistance method
         mCurrentPageIndex = PagerAdapter.POSITION_NONE;
         mFlipDistance = INVALID_FLIP_DISTANCE;
-        setFlipDistance(0);
+        resetInvalidatedFlip();
+        cancelNeighbourFill();
+        mNeighboursDeferred = mFastFirstFrame && adapter != null;
+        // view state is restored after onCreate but before the first layout,
+        // build the pages once the view is measured. Fragments restore their
+        // view state after attaching the view, so attaching does not count
+        mPagesDeferred = adapter != null && !ViewCompat.isLaidOut(this);
+        initialPage = Math.max(0, Math.min(initialPage, mPageCount - 1));
+        setFlipDistance(initialPage * FLIP_DISTANCE_PER_PAGE);
 
         updateEmptyStatus();
     }
@@ -1183,10 +1889,263 @@ public class FlipView extends FrameLayout {
         return mCurrentPageIndex;
     }
 
+    /**
+     * Set the number of pages that should be kept alive on each side of the
+     * current page. Pages within this limit are instantiated ahead of time so
+     * they are ready by the time the user flips to them.
+     *
+     * @param limit how many pages to keep alive on each side, at least 1.
+     *              Default is 1
+     */
+    public void setOffscreenPageLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("The offscreen page limit must be at least 1");
+        }
+        if (limit == mOffscreenPageLimit) {
+            return;
+        }
+        final Page current = getPage(mCurrentPageIndex);
+        mOffscreenPageLimit = limit;
+        relocatePages(current, limit * 2 + 1, false);
+        updateMaxRecycledPages();
+        if (mAdapter != null && mCurrentPageIndex >= 0) {
+            populatePages();
+            invalidate();
+        }
+    }
+
+    public int getOffscreenPageLimit() {
+        return mOffscreenPageLimit;
+    }
+
+    /**
+     * Inflate neighbour pages of a {@link RecyclingPagerAdapter} on a
+     * background thread. Until a page is ready an empty placeholder is shown
+     * in its place. The adapter's onCreateViewHolder has to be safe to call
+     * off the main thread when this is enabled. Binding still happens on the
+     * main thread.
+     *
+     * @param enabled Default is false
+     */
+    public void setAsyncPagePreparationEnabled(boolean enabled) {
+        if (mAsyncPagePreparation == enabled) {
+            return;
+        }
+        mAsyncPagePreparation = enabled;
+        if (!enabled && mPagePreparer != null) {
+            mPagePreparer.quit();
+            // nothing will swap these in anymore
+            for (Page page : mPages) {
+                if (page.placeholder) {
+                    final int position = page.position;
+                    destroyPage(page);
+                    instantiatePage(page, position);
+                }
+            }
+        }
+    }
+
+    public boolean isAsyncPagePreparationEnabled() {
+        return mAsyncPagePreparation;
+    }
+
+    /**
+     * Instantiate offscreen pages in the time left over between frames
+     * instead of when they enter the window. Only the pages needed to draw
+     * the current frame are instantiated right away, the others are built
+     * in the direction of travel first, as long as their average cost fits
+     * before the next vsync.
+     *
+     * @param enabled Default is false
+     */
+    public void setIdlePrefetchEnabled(boolean enabled) {
+        if (mIdlePrefetch == enabled) {
+            return;
+        }
+        mIdlePrefetch = enabled;
+        if (enabled) {
+            mPagePrefetcher = new PagePrefetcher(this, pagePrefetcherCallback);
+        } else {
+            mPagePrefetcher.cancel();
+            mPagePrefetcher = null;
+        }
+        if (mAdapter != null && mPageCount > 0) {
+            populatePages();
+        }
+    }
+
+    public boolean isIdlePrefetchEnabled() {
+        return mIdlePrefetch;
+    }
+
+    /**
+     * Instantiate only the current page when an adapter is set, so the
+     * first frame does not wait for its neighbours. The neighbours are
+     * instantiated once the first frame was drawn and the main thread is
+     * idle, or right away when a flip starts before that. Takes effect on
+     * the next {@link #setAdapter(PagerAdapter)}.
+     *
+     * @param enabled Default is false
+     */
+    public void setFastFirstFrameEnabled(boolean enabled) {
+        mFastFirstFrame = enabled;
+        if (!enabled) {
+            cancelNeighbourFill();
+            fillDeferredNeighbours();
+        }
+    }
+
+    public boolean isFastFirstFrameEnabled() {
+        return mFastFirstFrame;
+    }
+
+    /**
+     * Draw bitmap snapshots of the pages while flipping. The pages are drawn
+     * into reusable bitmaps once when a flip starts and those are used for
+     * every frame of the flip, which is much cheaper than drawing the page
+     * views three times per frame when hardware acceleration is not
+     * available. Pages are drawn as views again once the flip has settled.
+     *
+     * @param enabled Default is false
+     */
+    public void setSnapshotRenderingEnabled(boolean enabled) {
+        mSnapshotRendering = enabled;
+        if (!isDrawingSnapshots()) {
+            recycleSnapshots();
+        }
+        invalidate();
+    }
+
+    public boolean isSnapshotRenderingEnabled() {
+        return mSnapshotRendering;
+    }
+
+    /**
+     * Capture snapshots at a fraction of the page size, they are scaled back
+     * up with bitmap filtering while flipping and the live page is drawn
+     * again once the flip settles, so the lower resolution is only visible
+     * in motion. See {@link #setOpaqueSnapshotsEnabled(boolean)} to also
+     * halve their memory. Only used while snapshot rendering is enabled.
+     *
+     * @param scale Greater than 0 and at most 1, default is 1
+     */
+    public void setSnapshotScale(float scale) {
+        if (scale <= 0 || scale > 1) {
+            throw new IllegalArgumentException("Snapshot scale must be in (0, 1], was " + scale);
+        }
+        if (mSnapshotScale != scale) {
+            mSnapshotScale = scale;
+            recycleSnapshots();
+            invalidate();
+        }
+    }
+
+    public float getSnapshotScale() {
+        return mSnapshotScale;
+    }
+
+    /**
+     * Capture downscaled snapshots as RGB_565 instead of ARGB_8888, which
+     * halves their size but drops the alpha channel. Only enable this when
+     * every page fills its whole area with opaque content, translucent parts
+     * would be drawn black while flipping. Placeholder pages are never
+     * captured this way.
+     *
+     * @param enabled Default is false
+     */
+    public void setOpaqueSnapshotsEnabled(boolean enabled) {
+        if (mOpaqueSnapshots != enabled) {
+            mOpaqueSnapshots = enabled;
+            recycleSnapshots();
+            invalidate();
+        }
+    }
+
+    public boolean isOpaqueSnapshotsEnabled() {
+        return mOpaqueSnapshots;
+    }
+
+    /**
+     * Choose when pages are drawn through hardware layers. KEEP_WARM uses
+     * more memory, up to three layers stay allocated, in exchange for flips
+     * which start without rasterizing the neighbouring pages.
+     *
+     * @param layerPolicy Default is DURING_FLIP
+     */
+    public void setLayerPolicy(LayerPolicy layerPolicy) {
+        if (layerPolicy == null) {
+            throw new IllegalArgumentException("layerPolicy may not be null");
+        }
+        mLayerPolicy = layerPolicy;
+        mLayersWarm = false;
+        cancelLayerWarmup();
+        if (layerPolicy == LayerPolicy.NEVER) {
+            for (Page page : mPages) {
+                if (page.valid) {
+                    setDrawWithLayer(page.view, false);
+                }
+            }
+        }
+        invalidate();
+    }
+
+    public LayerPolicy getLayerPolicy() {
+        return mLayerPolicy;
+    }
+
+    /**
+     * Let the renderer skip drawing the parts of pages which another page
+     * covers, for every page. Pages whose view reports itself opaque, see
+     * {@link View#isOpaque()}, are culled anyway. Only enable this when all
+     * pages are opaque without saying so, the page below a translucent page
+     * would be missing where the two overlap.
+     *
+     * @param enabled Default is false
+     */
+    public void setOcclusionCullingEnabled(boolean enabled) {
+        mOcclusionCulling = enabled;
+        invalidate();
+    }
+
+    public boolean isOcclusionCullingEnabled() {
+        return mOcclusionCulling;
+    }
+
+    /**
+     * Change how flips are drawn. Besides the default {@link FoldFlipRenderer}
+     * the cheaper {@link ScaleFoldFlipRenderer}, {@link CrossFadeFlipRenderer}
+     * and {@link SlideFlipRenderer} are available.
+     *
+     * @param flipRenderer a renderer which is not used by another FlipView
+     */
+    public void setFlipRenderer(FlipRenderer flipRenderer) {
+        if (flipRenderer == null) {
+            throw new IllegalArgumentException("flipRenderer may not be null");
+        }
+        mFlipRenderer = flipRenderer;
+        flipRenderer.onSizeChanged(getWidth(), getHeight(), mIsFlippingVertically);
+        resetInvalidatedFlip();
+        invalidate();
+    }
+
+    public FlipRenderer getFlipRenderer() {
+        return mFlipRenderer;
+    }
+
+    /**
+     * Capture the pages again on the next frame. Call this when the content
+     * of a page changes during a flip while snapshot rendering is enabled.
+     */
+    public void invalidatePageSnapshots() {
+        releaseSnapshots();
+        invalidate();
+    }
+
     public void flipTo(int page) {
         if (page < 0 || page > mPageCount - 1) {
             throw new IllegalArgumentException("That page does not exist");
         }
+        mPendingRestoredPage = PagerAdapter.POSITION_NONE;
         endFlip();
         setFlipDistance(page * FLIP_DISTANCE_PER_PAGE);
     }
@@ -1195,15 +2154,45 @@ public class FlipView extends FrameLayout {
         flipTo(mCurrentPageIndex + delta);
     }
 
+    /**
+     * Animate a flip to page. Flipping further than a few pages does not flip
+     * through every page on the way, instead it jumps next to page and
+     * animates the last flip only so just page and its neighbours are
+     * instantiated.
+     *
+     * @param page the page to flip to
+     */
     public void smoothFlipTo(int page) {
+        mPendingRestoredPage = PagerAdapter.POSITION_NONE;
+        smoothFlipTo(page, 0);
+    }
+
+    /**
+     * @param velocity release velocity in flip distance per second, only
+     *                 used by the spring
+     */
+    private void smoothFlipTo(int page, float velocity) {
         if (page < 0 || page > mPageCount - 1) {
             throw new IllegalArgumentException("That page does not exist");
         }
-        final int start = (int) mFlipDistance;
-        final int delta = page * FLIP_DISTANCE_PER_PAGE - start;
-
         endFlip();
-        mScroller.startScroll(0, start, 0, delta, getFlipDuration(delta));
+
+        if (Math.abs(page - mCurrentPageIndex) > MAX_SMOOTH_FLIP_PAGES) {
+            endScroll();
+            endPeak();
+            final int from = page > mCurrentPageIndex ? page - 1 : page + 1;
+            setFlipDistance(from * FLIP_DISTANCE_PER_PAGE);
+        }
+
+        final float start = mFlipDistance;
+        final int target = page * FLIP_DISTANCE_PER_PAGE;
+
+        startFlipMetrics();
+        if (mSpringFlip) {
+            mFlipAnimator.springTo(start, target, velocity);
+        } else {
+            mFlipAnimator.animateTo(start, target, FlipPhysics.getFlipDuration((int) (target - start)));
+        }
         invalidate();
     }
 
@@ -1211,6 +2200,57 @@ public class FlipView extends FrameLayout {
         smoothFlipTo(mCurrentPageIndex + delta);
     }
 
+    /**
+     * Set the interpolator of animated flips which are not driven by a
+     * spring. Default is a DecelerateInterpolator
+     */
+    public void setFlipInterpolator(Interpolator interpolator) {
+        mFlipAnimator.setInterpolator(interpolator == null ? flipInterpolator : interpolator);
+    }
+
+    /**
+     * Let a spring settle flips instead of a fixed duration animation. The
+     * spring picks up the velocity of a fling, so fast flings land faster.
+     * Default is false
+     */
+    public void setSpringFlipEnabled(boolean enabled) {
+        mSpringFlip = enabled;
+    }
+
+    public boolean isSpringFlipEnabled() {
+        return mSpringFlip;
+    }
+
+    /**
+     * @param stiffness    stiffness of the spring settling flips, default 200
+     * @param dampingRatio 1 settles without overshoot, lower values bounce.
+     *                     Default is 1
+     */
+    public void setFlipSpring(float stiffness, float dampingRatio) {
+        if (stiffness <= 0 || dampingRatio <= 0) {
+            throw new IllegalArgumentException("Stiffness and damping ratio must be positive");
+        }
+        mFlipAnimator.setSpring(stiffness, dampingRatio);
+    }
+
+    /**
+     * Let fast flings carry over more than one page. The amount of pages grows
+     * with the fling velocity up to maxFlingPages at the maximum fling velocity.
+     *
+     * @param maxFlingPages the most pages a single fling can flip, at least 1.
+     *                      Default is 1
+     */
+    public void setMaxFlingPages(int maxFlingPages) {
+        if (maxFlingPages < 1) {
+            throw new IllegalArgumentException("A fling must be able to flip at least 1 page");
+        }
+        mMaxFlingPages = maxFlingPages;
+    }
+
+    public int getMaxFlingPages() {
+        return mMaxFlingPages;
+    }
+
     /**
      * Hint that there is a next page will do nothing if there is no next page
      *
@@ -1267,6 +2307,113 @@ public class FlipView extends FrameLayout {
         this.mOnOverFlipListener = onOverFlipListener;
     }
 
+    /**
+     * The OnFlipMetricsListener receives frame statistics once per completed
+     * flip. A flip starts with a touch flip, a smooth flip or a peak and ends
+     * once the view has settled on a page. Setting a listener turns the
+     * collection of metrics on, setting null turns it off.
+     *
+     * @param onFlipMetricsListener
+     */
+    public void setOnFlipMetricsListener(OnFlipMetricsListener onFlipMetricsListener) {
+        mOnFlipMetricsListener = onFlipMetricsListener;
+        updateFlipMetricsTracker();
+    }
+
+    /**
+     * Let the view lower its {@link RenderQuality} when flips keep missing
+     * frames, and raise it again once flips are smooth for a while. Frame
+     * times are measured the same way as for the OnFlipMetricsListener.
+     *
+     * @param enabled Default is false
+     */
+    public void setAdaptiveQualityEnabled(boolean enabled) {
+        if (enabled == (mQualityGovernor != null)) {
+            return;
+        }
+        final RenderQuality previous = getRenderQuality();
+        mQualityGovernor = enabled ? new RenderQualityGovernor(this::changesDrawing) : null;
+        updateFlipMetricsTracker();
+        if (previous != getRenderQuality()) {
+            onRenderQualityChanged();
+        }
+    }
+
+    /**
+     * Lowering the quality to NO_LAYERS saves nothing if pages never get a
+     * layer, neither does SNAPSHOTS if snapshot rendering is already on or
+     * LOW_RES_SNAPSHOTS if the snapshot scale is already that low
+     */
+    private boolean changesDrawing(RenderQuality quality) {
+        switch (quality) {
+            case NO_LAYERS:
+                return mLayerPolicy != LayerPolicy.NEVER;
+            case SNAPSHOTS:
+                return !mSnapshotRendering;
+            case LOW_RES_SNAPSHOTS:
+                return mSnapshotScale > LOW_RES_SNAPSHOT_SCALE;
+            default:
+                return true;
+        }
+    }
+
+    public boolean isAdaptiveQualityEnabled() {
+        return mQualityGovernor != null;
+    }
+
+    /**
+     * @return the quality flips are currently drawn with, always FULL unless
+     * adaptive quality is enabled
+     */
+    public RenderQuality getRenderQuality() {
+        return mQualityGovernor == null ? RenderQuality.FULL : mQualityGovernor.getQuality();
+    }
+
+    public void setOnRenderQualityChangeListener(OnRenderQualityChangeListener listener) {
+        mOnRenderQualityChangeListener = listener;
+    }
+
+    /**
+     * Metrics are collected while someone listens or the governor needs them
+     */
+    private void updateFlipMetricsTracker() {
+        final boolean needed = mOnFlipMetricsListener != null || mQualityGovernor != null;
+        if (!needed) {
+            if (mFlipMetrics != null) {
+                mFlipMetrics.cancel();
+                mFlipMetrics = null;
+            }
+        } else if (mFlipMetrics == null) {
+            mFlipMetrics = new FlipMetricsTracker(this::onFlipMetrics);
+        }
+    }
+
+    private void onFlipMetrics(FlipMetrics metrics) {
+        if (mOnFlipMetricsListener != null) {
+            mOnFlipMetricsListener.onFlipMetrics(this, metrics);
+        }
+        if (mQualityGovernor != null && mQualityGovernor.onFlip(metrics)) {
+            onRenderQualityChanged();
+        }
+    }
+
+    private void onRenderQualityChanged() {
+        // pooled bitmaps may have the wrong resolution for the new quality
+        recycleSnapshots();
+        if (!isDrawingWithLayers()) {
+            for (Page page : mPages) {
+                if (page.valid) {
+                    setDrawWithLayer(page.view, false);
+                }
+            }
+        }
+        mLayersWarm = false;
+        invalidate();
+        if (mOnRenderQualityChangeListener != null) {
+            mOnRenderQualityChangeListener.onRenderQualityChanged(this, getRenderQuality());
+        }
+    }
+
     /**
      * @return the overflip mode of this flipview. Default is GLOW
      */
@@ -0,0 +1,266 @@
+package se.emilsjolander.flipviewPager;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Paint.Style;
+import android.graphics.Rect;
+
+/**
+ * The default renderer, folds the page around the middle of the view in 3D
+ * with shadows on the static halves and a shade or shine on the flipping half.
+ */
+public class FoldFlipRenderer implements FlipRenderer {
+
+    private static final int MAX_SHADOW_ALPHA = 180;// out of 255
+    private static final int MAX_SHADE_ALPHA = 130;// out of 255
+    private static final int MAX_SHINE_ALPHA = 100;// out of 255
+
+    private final Rect mTopRect = new Rect();
+    private final Rect mBottomRect = new Rect();
+    private final Rect mRightRect = new Rect();
+    private final Rect mLeftRect = new Rect();
+    private boolean mVertical = true;
+
+    private final FlipMatrixCache mMatrixCache = new FlipMatrixCache();
+
+    // parts of the static halves not covered by the flipping half, empty if
+    // a half is hidden completely
+    private final Rect mPreviousHalfClip = new Rect();
+    private final Rect mNextHalfClip = new Rect();
+    // far edge of the flipping half, mapped through the flip matrix
+    private final float[] mFarEdge = new float[4];
+
+    private final Paint mShadowPaint = new Paint();
+    private final Paint mShadePaint = new Paint();
+    private final Paint mShinePaint = new Paint();
+
+    public FoldFlipRenderer() {
+        mShadowPaint.setColor(Color.BLACK);
+        mShadowPaint.setStyle(Style.FILL);
+        mShadePaint.setColor(Color.BLACK);
+        mShadePaint.setStyle(Style.FILL);
+        mShinePaint.setColor(Color.WHITE);
+        mShinePaint.setStyle(Style.FILL);
+    }
+
+    @Override
+    public void onSizeChanged(int width, int height, boolean vertical) {
+        mVertical = vertical;
+
+        mTopRect.top = 0;
+        mTopRect.left = 0;
+        mTopRect.right = width;
+        mTopRect.bottom = height / 2;
+
+        mBottomRect.top = height / 2;
+        mBottomRect.left = 0;
+        mBottomRect.right = width;
+        mBottomRect.bottom = height;
+
+        mLeftRect.top = 0;
+        mLeftRect.left = 0;
+        mLeftRect.right = width / 2;
+        mLeftRect.bottom = height;
+
+        mRightRect.top = 0;
+        mRightRect.left = width / 2;
+        mRightRect.right = width;
+        mRightRect.bottom = height;
+
+        mMatrixCache.update(width, height, vertical);
+    }
+
+    @Override
+    public void draw(Canvas canvas, FlipFrame frame) {
+        final float degreesFlipped = frame.getDegreesFlipped();
+        final Matrix flipMatrix = mMatrixCache.get(degreesFlipped);
+
+        mPreviousHalfClip.set(mVertical ? mTopRect : mLeftRect);
+        mNextHalfClip.set(mVertical ? mBottomRect : mRightRect);
+        // the next page flips over the previous half past 90 degrees
+        if (degreesFlipped > 90 ? frame.isNextPageOpaque() : frame.isPreviousPageOpaque()) {
+            cullCoveredHalf(frame, flipMatrix);
+        }
+
+        drawPreviousHalf(canvas, frame);
+        drawNextHalf(canvas, frame);
+        drawFlippingHalf(canvas, frame, flipMatrix);
+    }
+
+    @Override
+    public void getDirtyBounds(float degreesFlipped, Rect bounds) {
+        // the half the page flips over, the other one stays the same
+        if (degreesFlipped > 90) {
+            bounds.set(mVertical ? mTopRect : mLeftRect);
+        } else {
+            bounds.set(mVertical ? mBottomRect : mRightRect);
+        }
+    }
+
+    /**
+     * The flipping half hides the static half it is flipping over between the
+     * hinge and its far edge, as long as the projected far edge is at least
+     * as wide as the view. Narrow the clip of that static half to the part
+     * beyond the far edge.
+     */
+    private void cullCoveredHalf(FlipFrame frame, Matrix flipMatrix) {
+        final int width = frame.getWidth();
+        final int height = frame.getHeight();
+        final boolean previous = frame.getDegreesFlipped() > 90;
+        final float[] edge = mFarEdge;
+        if (mVertical) {
+            final float y = previous ? 0 : height;
+            edge[0] = 0;
+            edge[1] = y;
+            edge[2] = width;
+            edge[3] = y;
+        } else {
+            final float x = previous ? 0 : width;
+            edge[0] = x;
+            edge[1] = 0;
+            edge[2] = x;
+            edge[3] = height;
+        }
+        flipMatrix.mapPoints(edge);
+
+        if (mVertical) {
+            if (edge[0] > 0 || edge[2] < width) {
+                return;
+            }
+            if (previous) {
+                final Rect clip = mPreviousHalfClip;
+                clip.bottom = Math.max(clip.top, Math.min(clip.bottom,
+                        (int) Math.ceil(Math.max(edge[1], edge[3]))));
+            } else {
+                final Rect clip = mNextHalfClip;
+                clip.top = Math.min(clip.bottom, Math.max(clip.top,
+                        (int) Math.floor(Math.min(edge[1], edge[3]))));
+            }
+        } else {
+            if (edge[1] > 0 || edge[3] < height) {
+                return;
+            }
+            if (previous) {
+                final Rect clip = mPreviousHalfClip;
+                clip.right = Math.max(clip.left, Math.min(clip.right,
+                        (int) Math.ceil(Math.max(edge[0], edge[2]))));
+            } else {
+                final Rect clip = mNextHalfClip;
+                clip.left = Math.min(clip.right, Math.max(clip.left,
+                        (int) Math.floor(Math.min(edge[0], edge[2]))));
+            }
+        }
+    }
+
+    /**
+     * draw top/left half
+     */
+    private void drawPreviousHalf(Canvas canvas, FlipFrame frame) {
+        if (mPreviousHalfClip.isEmpty()) {
+            return;
+        }
+        canvas.save();
+        canvas.clipRect(mPreviousHalfClip);
+
+        if (frame.hasPreviousPage()) {
+            frame.drawPreviousPage(canvas);
+            frame.addDrawnPixels((long) mPreviousHalfClip.width() * mPreviousHalfClip.height());
+        }
+
+        if (frame.isShadowEnabled()) {
+            drawPreviousShadow(canvas, frame.getDegreesFlipped());
+        }
+        canvas.restore();
+    }
+
+    /**
+     * draw top/left half shadow
+     */
+    private void drawPreviousShadow(Canvas canvas, float degreesFlipped) {
+        if (degreesFlipped > 90) {
+            final int alpha = (int) (((degreesFlipped - 90) / 90f) * MAX_SHADOW_ALPHA);
+            mShadowPaint.setAlpha(alpha);
+            canvas.drawPaint(mShadowPaint);
+        }
+    }
+
+    /**
+     * draw bottom/right half
+     */
+    private void drawNextHalf(Canvas canvas, FlipFrame frame) {
+        if (mNextHalfClip.isEmpty()) {
+            return;
+        }
+        canvas.save();
+        canvas.clipRect(mNextHalfClip);
+
+        if (frame.hasNextPage()) {
+            frame.drawNextPage(canvas);
+            frame.addDrawnPixels((long) mNextHalfClip.width() * mNextHalfClip.height());
+        }
+
+        if (frame.isShadowEnabled()) {
+            drawNextShadow(canvas, frame.getDegreesFlipped());
+        }
+        canvas.restore();
+    }
+
+    /**
+     * draw bottom/right half shadow
+     */
+    private void drawNextShadow(Canvas canvas, float degreesFlipped) {
+        if (degreesFlipped < 90) {
+            final int alpha = (int) ((Math.abs(degreesFlipped - 90) / 90f) * MAX_SHADOW_ALPHA);
+            mShadowPaint.setAlpha(alpha);
+            canvas.drawPaint(mShadowPaint);
+        }
+    }
+
+    private void drawFlippingHalf(Canvas canvas, FlipFrame frame, Matrix flipMatrix) {
+        final float degreesFlipped = frame.getDegreesFlipped();
+        // past 90 degrees the next page is flipping over the previous half
+        final boolean flippingNext = degreesFlipped > 90;
+        final Rect half;
+        if (flippingNext) {
+            half = mVertical ? mTopRect : mLeftRect;
+        } else {
+            half = mVertical ? mBottomRect : mRightRect;
+        }
+        canvas.save();
+        canvas.clipRect(half);
+        canvas.concat(flipMatrix);
+
+        if (flippingNext && frame.hasNextPage()) {
+            frame.drawNextPage(canvas);
+            frame.addDrawnPixels((long) half.width() * half.height());
+        } else if (!flippingNext && frame.hasPreviousPage()) {
+            frame.drawPreviousPage(canvas);
+            frame.addDrawnPixels((long) half.width() * half.height());
+        }
+
+        if (frame.isShadowEnabled()) {
+            drawFlippingShadeShine(canvas, degreesFlipped);
+        }
+
+        canvas.restore();
+    }
+
+    /**
+     * will draw a shade if flipping on the previous(top/left) half and a shine
+     * if flipping on the next(bottom/right) half
+     */
+    private void drawFlippingShadeShine(Canvas canvas, float degreesFlipped) {
+        if (degreesFlipped < 90) {
+            final int alpha = (int) ((degreesFlipped / 90f) * MAX_SHINE_ALPHA);
+            mShinePaint.setAlpha(alpha);
+            canvas.drawRect(mVertical ? mBottomRect : mRightRect, mShinePaint);
+        } else {
+            final int alpha = (int) ((Math.abs(degreesFlipped - 180) / 90f) * MAX_SHADE_ALPHA);
+            mShadePaint.setAlpha(alpha);
+            canvas.drawRect(mVertical ? mTopRect : mLeftRect, mShadePaint);
+        }
+    }
+
+}
@@ -1,11 +1,17 @@
 package se.emilsjolander.flipviewPager;
 
 import android.graphics.Canvas;
+import android.graphics.Rect;
 
 import androidx.core.widget.EdgeEffectCompat;
 
 public class GlowOverFlipper implements OverFlipper {
 	
+	// the glow never reaches further from its edge than this part of the edge
+	// length, EdgeEffect itself stays below 0.17
+	private static final float MAX_GLOW_EXTENT = 0.2f;
+
+	// created on the first over flip, most views are never over flipped
 	private EdgeEffectCompat mTopEdgeEffect;
 	private EdgeEffectCompat mBottomEdgeEffect;
 	private FlipView mFlipView;
@@ -13,13 +19,15 @@ public class GlowOverFlipper implements OverFlipper {
 	
 	public GlowOverFlipper(FlipView v) {
 		mFlipView = v;
-		mTopEdgeEffect = new EdgeEffectCompat(v.getContext());
-		mBottomEdgeEffect = new EdgeEffectCompat(v.getContext());
 	}
 
 	@Override
 	public float calculate(float flipDistance, float minFlipDistance,
 			float maxFlipDistance) {
+		if (mTopEdgeEffect == null) {
+			mTopEdgeEffect = new EdgeEffectCompat(mFlipView.getContext());
+			mBottomEdgeEffect = new EdgeEffectCompat(mFlipView.getContext());
+		}
 		float deltaOverFlip = flipDistance - (flipDistance < 0 ? minFlipDistance : maxFlipDistance);
 		
 		mTotalOverFlip += deltaOverFlip;
@@ -36,9 +44,34 @@ public class GlowOverFlipper implements OverFlipper {
 
 	@Override
 	public boolean draw(Canvas c) {
+		if (mTopEdgeEffect == null) {
+			return false;
+		}
 		return drawTopEdgeEffect(c) | drawBottomEdgeEffect(c);
 	}
 
+	@Override
+	public void getDirtyBounds(Rect bounds) {
+		if (mTopEdgeEffect == null) {
+			return;
+		}
+		final int width = mFlipView.getWidth();
+		final int height = mFlipView.getHeight();
+		final boolean top = !mTopEdgeEffect.isFinished();
+		final boolean bottom = !mBottomEdgeEffect.isFinished();
+		if (top == bottom) {
+			// both or neither are glowing, keep the whole view
+			return;
+		}
+		if (mFlipView.isFlippingVertically()) {
+			final int extent = Math.min(height, (int) (width * MAX_GLOW_EXTENT) + 1);
+			bounds.set(0, top ? 0 : height - extent, width, top ? extent : height);
+		} else {
+			final int extent = Math.min(width, (int) (height * MAX_GLOW_EXTENT) + 1);
+			bounds.set(top ? 0 : width - extent, 0, top ? extent : width, height);
+		}
+	}
+
 	private boolean drawTopEdgeEffect(Canvas canvas) {
 		boolean needsMoreDrawing = false;
 		if (!mTopEdgeEffect.isFinished()) {
@@ -78,8 +111,10 @@ public class GlowOverFlipper implements OverFlipper {
 
 	@Override
 	public void overFlipEnded() {
-		mTopEdgeEffect.onRelease();
-		mBottomEdgeEffect.onRelease();
+		if (mTopEdgeEffect != null) {
+			mTopEdgeEffect.onRelease();
+			mBottomEdgeEffect.onRelease();
+		}
 		mTotalOverFlip = 0;
 	}
 
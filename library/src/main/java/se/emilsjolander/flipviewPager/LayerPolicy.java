@@ -0,0 +1,21 @@
+package se.emilsjolander.flipviewPager;
+
+/**
+ * When a {@link FlipView} draws its pages through hardware layers
+ */
+public enum LayerPolicy {
+    /**
+     * Pages are always drawn directly
+     */
+    NEVER,
+    /**
+     * Pages get a layer on the first frame of a flip, the current page drops
+     * it again once the flip has settled
+     */
+    DURING_FLIP,
+    /**
+     * Like DURING_FLIP, but the layers of the neighbouring pages are built
+     * while the view is idle so a flip starts with them ready
+     */
+    KEEP_WARM
+}
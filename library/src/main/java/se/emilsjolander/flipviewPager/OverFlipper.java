@@ -1,6 +1,7 @@
 package se.emilsjolander.flipviewPager;
 
 import android.graphics.Canvas;
+import android.graphics.Rect;
 
 public interface OverFlipper {
 
@@ -31,6 +32,17 @@ public interface OverFlipper {
 	 */
 	boolean draw(Canvas c);
 
+	/**
+	 * Called after {@link #draw(Canvas)} returned true to find the area which
+	 * has to be drawn again. Default keeps the whole view.
+	 * 
+	 * @param bounds
+	 *            set to the bounds of the view, narrow it down to the area
+	 *            the next draw changes
+	 */
+	default void getDirtyBounds(Rect bounds) {
+	}
+
 	/**
 	 * Triggered from a touch up or cancel event. reset and release state
 	 * variables here.
@@ -0,0 +1,115 @@
+package se.emilsjolander.flipviewPager;
+
+import android.util.SparseArray;
+import android.view.Choreographer;
+import android.view.View;
+
+/**
+ * Instantiates the pages of a {@link FlipView} which are not needed for the
+ * current frame in the time left between the end of a frame and the next
+ * vsync. The work of a frame stops before a page is started whose average
+ * instantiation cost, tracked per view type, would overrun the deadline.
+ * Pages which take longer than a whole frame never fit, they are
+ * instantiated once nothing is animating.
+ */
+class PagePrefetcher implements Choreographer.FrameCallback, Runnable {
+
+    interface Callback {
+        /**
+         * @return the next position to instantiate or -1 if there is none
+         */
+        int getNextPrefetchPosition();
+
+        int getItemViewType(int position);
+
+        void prefetch(int position);
+
+        /**
+         * @return true if nothing is animating, so a long frame goes unnoticed
+         */
+        boolean isIdle();
+    }
+
+    /**
+     * Exponential moving average of instantiation cost
+     */
+    private static class BindCost {
+        long averageNanos;
+    }
+
+    private final View mHost;
+    private final Callback mCallback;
+    private final SparseArray<BindCost> mBindCosts = new SparseArray<>();
+    private boolean mScheduled;
+    private long mFrameIntervalNanos;
+    private long mDeadlineNanos;
+
+    PagePrefetcher(View host, Callback callback) {
+        mHost = host;
+        mCallback = callback;
+    }
+
+    /**
+     * Prefetch after the next frame
+     *
+     * @param frameIntervalNanos duration of one vsync interval
+     */
+    void schedule(long frameIntervalNanos) {
+        mFrameIntervalNanos = frameIntervalNanos;
+        if (!mScheduled) {
+            mScheduled = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    void cancel() {
+        if (mScheduled) {
+            mScheduled = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+            mHost.removeCallbacks(this);
+        }
+    }
+
+    void recordBindCost(int viewType, long nanos) {
+        BindCost cost = mBindCosts.get(viewType);
+        if (cost == null) {
+            cost = new BindCost();
+            cost.averageNanos = nanos;
+            mBindCosts.put(viewType, cost);
+        } else {
+            cost.averageNanos = (cost.averageNanos * 3 + nanos) / 4;
+        }
+    }
+
+    /**
+     * @return the average cost of the view type, 0 if it was never measured
+     */
+    long getBindCost(int viewType) {
+        final BindCost cost = mBindCosts.get(viewType);
+        return cost == null ? 0 : cost.averageNanos;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        mDeadlineNanos = frameTimeNanos + mFrameIntervalNanos;
+        // runs once this frame has been drawn
+        mHost.post(this);
+    }
+
+    @Override
+    public void run() {
+        mScheduled = false;
+        int position;
+        while ((position = mCallback.getNextPrefetchPosition()) >= 0) {
+            final long cost = getBindCost(mCallback.getItemViewType(position));
+            final boolean fits = System.nanoTime() + cost <= mDeadlineNanos
+                    || (cost > mFrameIntervalNanos && mCallback.isIdle());
+            if (!fits) {
+                schedule(mFrameIntervalNanos);
+                return;
+            }
+            mCallback.prefetch(position);
+        }
+    }
+
+}
@@ -0,0 +1,78 @@
+package se.emilsjolander.flipviewPager;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.view.ViewGroup;
+
+/**
+ * Creates page view holders of a {@link RecyclingPagerAdapter} on a background
+ * thread and hands them to the recycled pages of the adapter on the main
+ * thread, where they are bound.
+ */
+class PagePreparer {
+
+    interface Callback {
+        /**
+         * Called on the main thread once a page for position can be
+         * instantiated without inflating it
+         */
+        void onPagePrepared(int position);
+    }
+
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final ViewGroup mParent;
+    private final Callback mCallback;
+    private HandlerThread mThread;
+    private Handler mWorkerHandler;
+    // bumped to drop results of work queued before a cancel
+    private int mGeneration;
+
+    PagePreparer(ViewGroup parent, Callback callback) {
+        mParent = parent;
+        mCallback = callback;
+    }
+
+    void prepare(final RecyclingPagerAdapter<?> adapter, final int position, final int viewType) {
+        if (mThread == null) {
+            mThread = new HandlerThread("FlipViewPagePreparer", Process.THREAD_PRIORITY_BACKGROUND);
+            mThread.start();
+            mWorkerHandler = new Handler(mThread.getLooper());
+        }
+        final int generation = mGeneration;
+        mWorkerHandler.post(() -> {
+            final RecyclingPagerAdapter.ViewHolder holder = adapter.createViewHolder(mParent, viewType);
+            mMainHandler.post(() -> {
+                if (generation == mGeneration) {
+                    adapter.addRecycledPage(holder);
+                    mCallback.onPagePrepared(position);
+                }
+            });
+        });
+    }
+
+    /**
+     * Drop all pending and in flight work
+     */
+    void cancel() {
+        mGeneration++;
+        if (mWorkerHandler != null) {
+            mWorkerHandler.removeCallbacksAndMessages(null);
+        }
+    }
+
+    /**
+     * Cancel all work and stop the background thread, it is started again
+     * by the next call to prepare
+     */
+    void quit() {
+        cancel();
+        if (mThread != null) {
+            mThread.quit();
+            mThread = null;
+            mWorkerHandler = null;
+        }
+    }
+
+}
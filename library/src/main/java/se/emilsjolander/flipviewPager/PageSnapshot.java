@@ -0,0 +1,75 @@
+package se.emilsjolander.flipviewPager;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.view.View;
+
+/**
+ * A bitmap copy of a page, drawn instead of the page view while flipping so
+ * the view tree is only traversed once per flip.
+ */
+class PageSnapshot {
+
+    private final Canvas mCanvas = new Canvas();
+    private final Paint mPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    // the area the bitmap is stretched over, the size of the captured view
+    private final Rect mBounds = new Rect();
+    private Bitmap mBitmap;
+
+    /**
+     * Draw view into the snapshot, the bitmap is reused when its size and
+     * config did not change
+     *
+     * @param scale  0 to 1, the snapshot is captured at this fraction of the
+     *               view size and scaled back up with filtering when drawn
+     * @param opaque true if the page covers its whole area, downscaled
+     *               snapshots of opaque pages use RGB_565 to halve their size
+     */
+    void capture(View view, float scale, boolean opaque) {
+        final int width = view.getWidth();
+        final int height = view.getHeight();
+        if (width <= 0 || height <= 0) {
+            release();
+            return;
+        }
+        final int bitmapWidth = Math.max(1, (int) Math.ceil(width * scale));
+        final int bitmapHeight = Math.max(1, (int) Math.ceil(height * scale));
+        final Bitmap.Config config = opaque && scale < 1
+                ? Bitmap.Config.RGB_565 : Bitmap.Config.ARGB_8888;
+        if (mBitmap == null || mBitmap.getWidth() != bitmapWidth
+                || mBitmap.getHeight() != bitmapHeight || mBitmap.getConfig() != config) {
+            release();
+            mBitmap = Bitmap.createBitmap(bitmapWidth, bitmapHeight, config);
+            mCanvas.setBitmap(mBitmap);
+        } else {
+            mBitmap.eraseColor(Color.TRANSPARENT);
+        }
+        mBounds.set(0, 0, width, height);
+        mCanvas.save();
+        mCanvas.scale(bitmapWidth / (float) width, bitmapHeight / (float) height);
+        view.draw(mCanvas);
+        mCanvas.restore();
+    }
+
+    /**
+     * @param alpha 0 to 255
+     */
+    void draw(Canvas canvas, int alpha) {
+        if (mBitmap != null) {
+            mPaint.setAlpha(alpha);
+            canvas.drawBitmap(mBitmap, null, mBounds, mPaint);
+        }
+    }
+
+    void release() {
+        if (mBitmap != null) {
+            mCanvas.setBitmap(null);
+            mBitmap.recycle();
+            mBitmap = null;
+        }
+    }
+
+}
@@ -0,0 +1,62 @@
+package se.emilsjolander.flipviewPager;
+
+import android.util.SparseArray;
+
+import java.util.ArrayList;
+
+/**
+ * Holds detached page view holders per view type so they can be rebound
+ * instead of inflated again.
+ */
+class RecycledPagePool<VH extends RecyclingPagerAdapter.ViewHolder> {
+
+    private static final int DEFAULT_MAX_SCRAP = 3;
+
+    private final SparseArray<ArrayList<VH>> mScrap = new SparseArray<>();
+    private int mMaxScrap = DEFAULT_MAX_SCRAP;
+
+    /**
+     * @return a recycled holder of the view type or null if there is none
+     */
+    VH get(int viewType) {
+        final ArrayList<VH> scrap = mScrap.get(viewType);
+        if (scrap == null || scrap.isEmpty()) {
+            return null;
+        }
+        return scrap.remove(scrap.size() - 1);
+    }
+
+    boolean contains(int viewType) {
+        final ArrayList<VH> scrap = mScrap.get(viewType);
+        return scrap != null && !scrap.isEmpty();
+    }
+
+    void put(VH holder) {
+        ArrayList<VH> scrap = mScrap.get(holder.itemViewType);
+        if (scrap == null) {
+            scrap = new ArrayList<>(mMaxScrap);
+            mScrap.put(holder.itemViewType, scrap);
+        }
+        if (scrap.size() < mMaxScrap) {
+            scrap.add(holder);
+        }
+    }
+
+    /**
+     * @param maxScrap maximum amount of holders kept per view type
+     */
+    void setMaxScrap(int maxScrap) {
+        mMaxScrap = maxScrap;
+        for (int i = 0; i < mScrap.size(); i++) {
+            final ArrayList<VH> scrap = mScrap.valueAt(i);
+            while (scrap.size() > maxScrap) {
+                scrap.remove(scrap.size() - 1);
+            }
+        }
+    }
+
+    void clear() {
+        mScrap.clear();
+    }
+
+}
@@ -0,0 +1,469 @@
+package se.emilsjolander.flipviewPager;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.viewpager.widget.PagerAdapter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A PagerAdapter which recycles the views of destroyed pages. Instead of
+ * inflating a new page in {@link #instantiateItem(ViewGroup, int)} a detached
+ * view holder of the same view type is rebound when available. When used with
+ * a {@link FlipView} the amount of recycled holders per view type follows its
+ * offscreen page window.
+ * <p>
+ * Besides {@link #notifyDataSetChanged()} the adapter supports fine grained
+ * notifications like {@link #notifyItemRangeInserted(int, int)}. Active pages
+ * follow their items through these, and a changed item only rebinds the page
+ * showing it, optionally with a payload for a partial rebind.
+ *
+ * @param <VH> the view holder type of this adapter
+ */
+public abstract class RecyclingPagerAdapter<VH extends RecyclingPagerAdapter.ViewHolder> extends PagerAdapter {
+
+    public static final long NO_ID = -1;
+
+    /**
+     * Holds the view of a page and the info needed to recycle it
+     */
+    public static abstract class ViewHolder {
+        public final View itemView;
+        int itemViewType;
+        int position = POSITION_NONE;
+        long itemId = NO_ID;
+        // position of itemId found by the last lookup, POSITION_NONE if gone
+        int idPosition = POSITION_NONE;
+        // set while a change notification waits to be rebound
+        boolean updatePending;
+        // null payload was notified, rebind everything
+        boolean fullUpdate;
+        final ArrayList<Object> payloads = new ArrayList<>();
+
+        public ViewHolder(View itemView) {
+            if (itemView == null) {
+                throw new IllegalArgumentException("itemView may not be null");
+            }
+            this.itemView = itemView;
+        }
+
+        public int getItemViewType() {
+            return itemViewType;
+        }
+
+        /**
+         * @return the position this holder was last bound to or
+         * POSITION_NONE if it is currently recycled
+         */
+        public int getAdapterPosition() {
+            return position;
+        }
+
+        /**
+         * @return the stable id of the item this holder is bound to or NO_ID
+         */
+        public long getItemId() {
+            return itemId;
+        }
+    }
+
+    /**
+     * Notified about fine grained changes. Holder positions are already
+     * updated when called
+     */
+    interface ItemRangeObserver {
+        /**
+         * The items in the range were rebound in place
+         */
+        void onItemRangeChanged(int positionStart, int itemCount);
+
+        /**
+         * Items were inserted, removed or moved
+         */
+        void onItemRangesMoved();
+    }
+
+    private final RecycledPagePool<VH> mRecycledPages = new RecycledPagePool<>();
+    // holders currently bound to a page
+    private final ArrayList<VH> mActiveHolders = new ArrayList<>();
+    private final ArrayList<VH> mUpdatedHolders = new ArrayList<>();
+    private final ArrayList<ItemRangeObserver> mItemRangeObservers = new ArrayList<>();
+    // while > 0 notifications are collected and dispatched by endBatch()
+    private int mBatchDepth;
+    private boolean mBatchMoved;
+    private int mBatchChangedStart = Integer.MAX_VALUE;
+    private int mBatchChangedEnd = -1;
+
+    private boolean mHasStableIds;
+    // false once the data changed until the ids of the active holders were
+    // looked up again
+    private boolean mIdPositionsValid;
+
+    /**
+     * @return the view type of the page at position, pages are only recycled
+     * into pages of the same view type. Default is 0
+     */
+    public int getItemViewType(int position) {
+        return 0;
+    }
+
+    /**
+     * Indicate whether each item can be represented with a unique id of type
+     * long. With stable ids the pages of a FlipView follow their items when
+     * items are added, removed or moved, they are only destroyed when their
+     * item is gone.
+     */
+    public void setHasStableIds(boolean hasStableIds) {
+        mHasStableIds = hasStableIds;
+        mIdPositionsValid = false;
+    }
+
+    public final boolean hasStableIds() {
+        return mHasStableIds;
+    }
+
+    /**
+     * @return the stable id of the item at position, only called when
+     * {@link #hasStableIds()} is true. Default is NO_ID
+     */
+    public long getItemId(int position) {
+        return NO_ID;
+    }
+
+    /**
+     * Inflate a new page. The returned view must not be attached to parent.
+     * When asynchronous page preparation is enabled on the FlipView this is
+     * called on a background thread, so it should only inflate and look up
+     * views.
+     */
+    @NonNull
+    public abstract VH onCreateViewHolder(@NonNull ViewGroup parent, int viewType);
+
+    /**
+     * Bind the data for position to a new or recycled holder.
+     */
+    public abstract void onBindViewHolder(@NonNull VH holder, int position);
+
+    /**
+     * Bind the data for position, payloads holds the payloads of the change
+     * notifications since the last bind and is empty for a full bind. Default
+     * ignores the payloads and calls {@link #onBindViewHolder(ViewHolder, int)}
+     */
+    public void onBindViewHolder(@NonNull VH holder, int position, @NonNull List<Object> payloads) {
+        onBindViewHolder(holder, position);
+    }
+
+    /**
+     * Called when a holder is detached and about to be recycled. Release
+     * anything held for its previous position here.
+     */
+    public void onUnbindViewHolder(@NonNull VH holder) {
+    }
+
+    @NonNull
+    @Override
+    public final Object instantiateItem(@NonNull ViewGroup container, int position) {
+        final int viewType = getItemViewType(position);
+        VH holder = mRecycledPages.get(viewType);
+        if (holder == null) {
+            holder = createViewHolder(container, viewType);
+        }
+        holder.position = position;
+        holder.itemId = mHasStableIds ? getItemId(position) : NO_ID;
+        holder.idPosition = position;
+        onBindViewHolder(holder, position, Collections.emptyList());
+        container.addView(holder.itemView);
+        mActiveHolders.add(holder);
+        return holder;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final void destroyItem(@NonNull ViewGroup container, int position, @NonNull Object object) {
+        final VH holder = (VH) object;
+        mActiveHolders.remove(holder);
+        if (holder.updatePending) {
+            mUpdatedHolders.remove(holder);
+            clearUpdate(holder);
+        }
+        container.removeView(holder.itemView);
+        onUnbindViewHolder(holder);
+        holder.position = POSITION_NONE;
+        holder.itemId = NO_ID;
+        mRecycledPages.put(holder);
+    }
+
+    /**
+     * With stable ids the new position of a page is looked up by the id of
+     * its item, without stable ids pages keep their position unless it was
+     * moved by a fine grained notification.
+     */
+    @Override
+    public int getItemPosition(@NonNull Object object) {
+        final ViewHolder holder = (ViewHolder) object;
+        if (!mHasStableIds) {
+            return holder.position < 0 ? POSITION_NONE : holder.position;
+        }
+        if (!mIdPositionsValid) {
+            findIdPositions();
+            mIdPositionsValid = true;
+        }
+        final int position = holder.itemId == NO_ID ? POSITION_NONE : holder.idPosition;
+        if (position != POSITION_NONE) {
+            holder.position = position;
+        }
+        return position;
+    }
+
+    @Override
+    public void notifyDataSetChanged() {
+        mIdPositionsValid = false;
+        super.notifyDataSetChanged();
+    }
+
+    public final void notifyItemChanged(int position) {
+        notifyItemRangeChanged(position, 1, null);
+    }
+
+    public final void notifyItemChanged(int position, @Nullable Object payload) {
+        notifyItemRangeChanged(position, 1, payload);
+    }
+
+    public final void notifyItemRangeChanged(int positionStart, int itemCount) {
+        notifyItemRangeChanged(positionStart, itemCount, null);
+    }
+
+    /**
+     * The items in the range changed, pages showing them are rebound with the
+     * payload passed on to {@link #onBindViewHolder(ViewHolder, int, List)}.
+     * A null payload rebinds the whole page.
+     */
+    public final void notifyItemRangeChanged(int positionStart, int itemCount, @Nullable Object payload) {
+        for (VH holder : mActiveHolders) {
+            if (holder.position >= positionStart && holder.position < positionStart + itemCount) {
+                if (!holder.updatePending) {
+                    holder.updatePending = true;
+                    mUpdatedHolders.add(holder);
+                }
+                if (payload == null) {
+                    holder.fullUpdate = true;
+                } else {
+                    holder.payloads.add(payload);
+                }
+            }
+        }
+        mBatchChangedStart = Math.min(mBatchChangedStart, positionStart);
+        mBatchChangedEnd = Math.max(mBatchChangedEnd, positionStart + itemCount);
+        if (mBatchDepth == 0) {
+            dispatchItemRangeChanges();
+        }
+    }
+
+    public final void notifyItemInserted(int position) {
+        notifyItemRangeInserted(position, 1);
+    }
+
+    public final void notifyItemRangeInserted(int positionStart, int itemCount) {
+        for (VH holder : mActiveHolders) {
+            if (holder.position >= positionStart) {
+                holder.position += itemCount;
+            }
+        }
+        onItemRangesMoved();
+    }
+
+    public final void notifyItemRemoved(int position) {
+        notifyItemRangeRemoved(position, 1);
+    }
+
+    /**
+     * The items in the range were removed, their pages are destroyed
+     */
+    public final void notifyItemRangeRemoved(int positionStart, int itemCount) {
+        for (VH holder : mActiveHolders) {
+            if (holder.position >= positionStart + itemCount) {
+                holder.position -= itemCount;
+            } else if (holder.position >= positionStart) {
+                holder.position = POSITION_NONE;
+            }
+        }
+        onItemRangesMoved();
+    }
+
+    public final void notifyItemMoved(int fromPosition, int toPosition) {
+        for (VH holder : mActiveHolders) {
+            if (holder.position == fromPosition) {
+                holder.position = toPosition;
+            } else if (fromPosition < holder.position && holder.position <= toPosition) {
+                holder.position--;
+            } else if (toPosition <= holder.position && holder.position < fromPosition) {
+                holder.position++;
+            }
+        }
+        onItemRangesMoved();
+    }
+
+    /**
+     * Collect notifications until the matching {@link #endBatch()}, so a
+     * series of updates is applied to the pages at once and pages are only
+     * rebound with the final data
+     */
+    void beginBatch() {
+        mBatchDepth++;
+    }
+
+    void endBatch() {
+        if (--mBatchDepth == 0) {
+            dispatchItemRangeChanges();
+        }
+    }
+
+    void registerItemRangeObserver(ItemRangeObserver observer) {
+        mItemRangeObservers.add(observer);
+    }
+
+    void unregisterItemRangeObserver(ItemRangeObserver observer) {
+        mItemRangeObservers.remove(observer);
+    }
+
+    private void onItemRangesMoved() {
+        mIdPositionsValid = false;
+        mBatchMoved = true;
+        if (mBatchDepth == 0) {
+            dispatchItemRangeChanges();
+        }
+    }
+
+    private void dispatchItemRangeChanges() {
+        for (int i = 0; i < mUpdatedHolders.size(); i++) {
+            final VH holder = mUpdatedHolders.get(i);
+            if (holder.position >= 0) {
+                holder.itemId = mHasStableIds ? getItemId(holder.position) : NO_ID;
+                onBindViewHolder(holder, holder.position, holder.fullUpdate
+                        ? Collections.emptyList() : holder.payloads);
+            }
+            clearUpdate(holder);
+        }
+        mUpdatedHolders.clear();
+
+        final boolean moved = mBatchMoved;
+        final int changedStart = mBatchChangedStart;
+        final int changedEnd = mBatchChangedEnd;
+        mBatchMoved = false;
+        mBatchChangedStart = Integer.MAX_VALUE;
+        mBatchChangedEnd = -1;
+
+        if (mItemRangeObservers.isEmpty()) {
+            // a plain pager only knows about data set changes
+            if (moved) {
+                super.notifyDataSetChanged();
+            }
+            return;
+        }
+        for (int i = mItemRangeObservers.size() - 1; i >= 0; i--) {
+            final ItemRangeObserver observer = mItemRangeObservers.get(i);
+            if (moved) {
+                observer.onItemRangesMoved();
+            } else if (changedEnd > changedStart) {
+                observer.onItemRangeChanged(changedStart, changedEnd - changedStart);
+            }
+        }
+    }
+
+    private static void clearUpdate(ViewHolder holder) {
+        holder.updatePending = false;
+        holder.fullUpdate = false;
+        holder.payloads.clear();
+    }
+
+    /**
+     * Look up the new positions of the ids of all active holders in one pass.
+     * Only the few active ids are searched for, outwards from where they used
+     * to be, so a prepend or append of n items costs about n getItemId calls
+     * and nothing is indexed or boxed. Only an id which is gone is searched
+     * for in every position.
+     */
+    private void findIdPositions() {
+        int missing = 0;
+        int first = Integer.MAX_VALUE;
+        int last = 0;
+        for (int i = 0; i < mActiveHolders.size(); i++) {
+            final VH holder = mActiveHolders.get(i);
+            holder.idPosition = POSITION_NONE;
+            if (holder.itemId != NO_ID) {
+                missing++;
+                first = Math.min(first, Math.max(0, holder.position));
+                last = Math.max(last, holder.position);
+            }
+        }
+        final int center = (first + last) / 2;
+        final int count = getCount();
+        for (int distance = 0; missing > 0
+                && (center - distance >= 0 || center + distance < count); distance++) {
+            missing -= findIdPosition(center + distance, count);
+            if (distance > 0 && missing > 0) {
+                missing -= findIdPosition(center - distance, count);
+            }
+        }
+    }
+
+    /**
+     * @return how many active holders were found at position
+     */
+    private int findIdPosition(int position, int count) {
+        if (position < 0 || position >= count) {
+            return 0;
+        }
+        final long id = getItemId(position);
+        int found = 0;
+        for (int i = 0; i < mActiveHolders.size(); i++) {
+            final VH holder = mActiveHolders.get(i);
+            if (holder.itemId == id && holder.idPosition == POSITION_NONE) {
+                holder.idPosition = position;
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public boolean isViewFromObject(@NonNull View view, @NonNull Object object) {
+        return ((ViewHolder) object).itemView == view;
+    }
+
+    /**
+     * Drop all recycled holders, for example after a theme change
+     */
+    public void clearRecycledPages() {
+        mRecycledPages.clear();
+    }
+
+    List<VH> getActiveViewHolders() {
+        return mActiveHolders;
+    }
+
+    VH createViewHolder(ViewGroup parent, int viewType) {
+        final VH holder = onCreateViewHolder(parent, viewType);
+        holder.itemViewType = viewType;
+        return holder;
+    }
+
+    boolean hasRecycledPage(int position) {
+        return mRecycledPages.contains(getItemViewType(position));
+    }
+
+    @SuppressWarnings("unchecked")
+    void addRecycledPage(ViewHolder holder) {
+        mRecycledPages.put((VH) holder);
+    }
+
+    void setMaxRecycledPages(int maxRecycledPages) {
+        mRecycledPages.setMaxScrap(maxRecycledPages);
+    }
+
+}
@@ -0,0 +1,28 @@
+package se.emilsjolander.flipviewPager;
+
+/**
+ * How much a {@link FlipView} spends on drawing flips, from most to least.
+ * Every step keeps the savings of the steps before it.
+ */
+public enum RenderQuality {
+    /**
+     * Flips are drawn as configured
+     */
+    FULL,
+    /**
+     * Renderers skip their shadow, shade and shine paints
+     */
+    NO_SHADOWS,
+    /**
+     * Pages are drawn without hardware layers
+     */
+    NO_LAYERS,
+    /**
+     * Pages are drawn from bitmap snapshots
+     */
+    SNAPSHOTS,
+    /**
+     * Pages are drawn from snapshots captured at half resolution or less
+     */
+    LOW_RES_SNAPSHOTS
+}
@@ -0,0 +1,89 @@
+package se.emilsjolander.flipviewPager;
+
+/**
+ * Picks the {@link RenderQuality} of a FlipView from the frame intervals of its
+ * flips. Steps down after a few flips in a row missed too many frames and
+ * back up after a longer run of smooth flips, so a single slow flip, for
+ * example while a page is loading, does not change the quality. Qualities
+ * that would not change how the FlipView draws are skipped.
+ */
+class RenderQualityGovernor {
+
+    interface Tiers {
+        /**
+         * @return false if quality draws the same as the quality above it
+         */
+        boolean changesDrawing(RenderQuality quality);
+    }
+
+    // flips with fewer frame intervals say too little about the device
+    private static final int MIN_FRAMES = 6;
+    // a flip is janky when more than this part of its frame intervals missed a vsync
+    private static final float JANKY_FRAME_RATIO = 0.2f;
+    // a flip is smooth when at most this part of its frame intervals missed a vsync
+    private static final float SMOOTH_FRAME_RATIO = 0.05f;
+    private static final int JANKY_FLIPS_TO_STEP_DOWN = 2;
+    private static final int SMOOTH_FLIPS_TO_STEP_UP = 8;
+
+    private static final RenderQuality[] QUALITIES = RenderQuality.values();
+
+    private final Tiers mTiers;
+    private RenderQuality mQuality = RenderQuality.FULL;
+    private int mJankyFlips;
+    private int mSmoothFlips;
+
+    RenderQualityGovernor(Tiers tiers) {
+        mTiers = tiers;
+    }
+
+    RenderQuality getQuality() {
+        return mQuality;
+    }
+
+    void reset() {
+        mQuality = RenderQuality.FULL;
+        mJankyFlips = 0;
+        mSmoothFlips = 0;
+    }
+
+    /**
+     * @return true if the quality changed
+     */
+    boolean onFlip(FlipMetrics metrics) {
+        final int frames = metrics.getFrameIntervals();
+        if (frames < MIN_FRAMES) {
+            return false;
+        }
+        final float missedRatio = metrics.getJankyFrameIntervals() / (float) frames;
+        if (missedRatio > JANKY_FRAME_RATIO) {
+            mSmoothFlips = 0;
+            if (++mJankyFlips >= JANKY_FLIPS_TO_STEP_DOWN) {
+                return step(1);
+            }
+        } else if (missedRatio <= SMOOTH_FRAME_RATIO) {
+            mJankyFlips = 0;
+            if (++mSmoothFlips >= SMOOTH_FLIPS_TO_STEP_UP) {
+                return step(-1);
+            }
+        } else {
+            mJankyFlips = 0;
+            mSmoothFlips = 0;
+        }
+        return false;
+    }
+
+    private boolean step(int direction) {
+        mJankyFlips = 0;
+        mSmoothFlips = 0;
+        for (int ordinal = mQuality.ordinal() + direction;
+                ordinal >= 0 && ordinal < QUALITIES.length; ordinal += direction) {
+            final RenderQuality quality = QUALITIES[ordinal];
+            if (quality == RenderQuality.FULL || mTiers.changesDrawing(quality)) {
+                mQuality = quality;
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
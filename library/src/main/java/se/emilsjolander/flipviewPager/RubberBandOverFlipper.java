@@ -23,16 +23,8 @@ public class RubberBandOverFlipper implements OverFlipper {
 		
 		mTotalOverFlip += deltaOverFlip;
 		
-		float sign = Math.signum(mTotalOverFlip);
-		
-		mCurrentOverFlip = (float) Math.pow(Math.abs(mTotalOverFlip), EXPONENTIAL_DECREES) * sign;
-		
-		
-		if(mCurrentOverFlip < 0) {
-			mCurrentOverFlip = Math.max(-MAX_OVER_FLIP_DISTANCE, mCurrentOverFlip);
-		}else {
-			mCurrentOverFlip = Math.min(MAX_OVER_FLIP_DISTANCE, mCurrentOverFlip);
-		}
+		mCurrentOverFlip = FlipPhysics.getRubberBandOverFlip(mTotalOverFlip,
+				MAX_OVER_FLIP_DISTANCE, EXPONENTIAL_DECREES);
 		
 		return mCurrentOverFlip + (mCurrentOverFlip < 0 ? minFlipDistance : maxFlipDistance);
 	}
@@ -0,0 +1,119 @@
+package se.emilsjolander.flipviewPager;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+/**
+ * A flat version of the fold, the flipping half is squashed towards the
+ * middle of the view with a 2D scale instead of being rotated in 3D. Needs no
+ * perspective transform and draws a single shadow, which suits devices too
+ * slow for {@link FoldFlipRenderer}.
+ */
+public class ScaleFoldFlipRenderer implements FlipRenderer {
+
+    private static final int MAX_SHADOW_ALPHA = 180;// out of 255
+
+    private final Rect mPreviousHalf = new Rect();
+    private final Rect mNextHalf = new Rect();
+    private final Rect mPreviousHalfClip = new Rect();
+    private final Rect mNextHalfClip = new Rect();
+    private final Paint mShadowPaint = new Paint();
+    private boolean mVertical = true;
+    private int mWidth;
+    private int mHeight;
+
+    public ScaleFoldFlipRenderer() {
+        mShadowPaint.setColor(Color.BLACK);
+    }
+
+    @Override
+    public void onSizeChanged(int width, int height, boolean vertical) {
+        mVertical = vertical;
+        mWidth = width;
+        mHeight = height;
+        if (vertical) {
+            mPreviousHalf.set(0, 0, width, height / 2);
+            mNextHalf.set(0, height / 2, width, height);
+        } else {
+            mPreviousHalf.set(0, 0, width / 2, height);
+            mNextHalf.set(width / 2, 0, width, height);
+        }
+    }
+
+    @Override
+    public void draw(Canvas canvas, FlipFrame frame) {
+        final float degreesFlipped = frame.getDegreesFlipped();
+        final boolean flippingNext = degreesFlipped > 90;
+        // how much of its half the flipping half still covers
+        final float scale = Math.abs((float) Math.cos(Math.toRadians(degreesFlipped)));
+
+        mPreviousHalfClip.set(mPreviousHalf);
+        mNextHalfClip.set(mNextHalf);
+        if (flippingNext && frame.isNextPageOpaque()) {
+            if (mVertical) {
+                mPreviousHalfClip.bottom -= (int) (mPreviousHalf.height() * scale);
+            } else {
+                mPreviousHalfClip.right -= (int) (mPreviousHalf.width() * scale);
+            }
+        } else if (!flippingNext && frame.isPreviousPageOpaque()) {
+            if (mVertical) {
+                mNextHalfClip.top += (int) (mNextHalf.height() * scale);
+            } else {
+                mNextHalfClip.left += (int) (mNextHalf.width() * scale);
+            }
+        }
+
+        if (!mPreviousHalfClip.isEmpty()) {
+            canvas.save();
+            canvas.clipRect(mPreviousHalfClip);
+            if (frame.hasPreviousPage()) {
+                frame.drawPreviousPage(canvas);
+                frame.addDrawnPixels((long) mPreviousHalfClip.width() * mPreviousHalfClip.height());
+            }
+            if (flippingNext && frame.isShadowEnabled()) {
+                mShadowPaint.setAlpha((int) (((degreesFlipped - 90) / 90f) * MAX_SHADOW_ALPHA));
+                canvas.drawRect(mPreviousHalfClip, mShadowPaint);
+            }
+            canvas.restore();
+        }
+
+        if (!mNextHalfClip.isEmpty()) {
+            canvas.save();
+            canvas.clipRect(mNextHalfClip);
+            if (frame.hasNextPage()) {
+                frame.drawNextPage(canvas);
+                frame.addDrawnPixels((long) mNextHalfClip.width() * mNextHalfClip.height());
+            }
+            if (!flippingNext && frame.isShadowEnabled()) {
+                mShadowPaint.setAlpha((int) (((90 - degreesFlipped) / 90f) * MAX_SHADOW_ALPHA));
+                canvas.drawRect(mNextHalfClip, mShadowPaint);
+            }
+            canvas.restore();
+        }
+
+        final Rect half = flippingNext ? mPreviousHalf : mNextHalf;
+        canvas.save();
+        canvas.clipRect(half);
+        if (mVertical) {
+            canvas.scale(1, scale, 0, mHeight / 2f);
+        } else {
+            canvas.scale(scale, 1, mWidth / 2f, 0);
+        }
+        if (flippingNext && frame.hasNextPage()) {
+            frame.drawNextPage(canvas);
+            frame.addDrawnPixels((long) (half.width() * half.height() * scale));
+        } else if (!flippingNext && frame.hasPreviousPage()) {
+            frame.drawPreviousPage(canvas);
+            frame.addDrawnPixels((long) (half.width() * half.height() * scale));
+        }
+        canvas.restore();
+    }
+
+    @Override
+    public void getDirtyBounds(float degreesFlipped, Rect bounds) {
+        bounds.set(degreesFlipped > 90 ? mPreviousHalf : mNextHalf);
+    }
+
+}
@@ -0,0 +1,46 @@
+package se.emilsjolander.flipviewPager;
+
+import android.graphics.Canvas;
+
+/**
+ * Slides the next page in along the flip axis while the previous page slides
+ * out, like a ViewPager. Every pixel is drawn once.
+ */
+public class SlideFlipRenderer implements FlipRenderer {
+
+    @Override
+    public void draw(Canvas canvas, FlipFrame frame) {
+        final int width = frame.getWidth();
+        final int height = frame.getHeight();
+        final boolean vertical = frame.isFlippingVertically();
+        final float size = vertical ? height : width;
+        final float offset = frame.getFraction() * size;
+
+        if (frame.hasPreviousPage() && offset < size) {
+            canvas.save();
+            if (vertical) {
+                canvas.clipRect(0, 0, width, size - offset);
+                canvas.translate(0, -offset);
+            } else {
+                canvas.clipRect(0, 0, size - offset, height);
+                canvas.translate(-offset, 0);
+            }
+            frame.drawPreviousPage(canvas);
+            canvas.restore();
+        }
+        if (frame.hasNextPage() && offset > 0) {
+            canvas.save();
+            if (vertical) {
+                canvas.clipRect(0, size - offset, width, height);
+                canvas.translate(0, size - offset);
+            } else {
+                canvas.clipRect(size - offset, 0, width, height);
+                canvas.translate(size - offset, 0);
+            }
+            frame.drawNextPage(canvas);
+            canvas.restore();
+        }
+        frame.addDrawnPixels((long) width * height);
+    }
+
+}
@@ -0,0 +1,33 @@
+package se.emilsjolander.flipviewPager;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Bytes allocated by the current thread, as reported by the HotSpot
+ * ThreadMXBean the tests run on
+ */
+final class Allocations {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private Allocations() {
+    }
+
+    static boolean isSupported() {
+        return THREADS.isThreadAllocatedMemorySupported() && THREADS.isThreadAllocatedMemoryEnabled();
+    }
+
+    static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * @return what measuring itself allocates, subtract it from a measurement
+     */
+    static long overhead() {
+        final long start = allocatedBytes();
+        return allocatedBytes() - start;
+    }
+
+}
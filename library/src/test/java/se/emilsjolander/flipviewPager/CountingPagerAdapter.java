@@ -0,0 +1,64 @@
+package se.emilsjolander.flipviewPager;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.viewpager.widget.PagerAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A PagerAdapter over a list of item ids which counts how often pages are
+ * instantiated and destroyed. The object of a page is its view, tagged with
+ * the id of its item.
+ */
+class CountingPagerAdapter extends PagerAdapter {
+
+    final List<Integer> items = new ArrayList<>();
+    int instantiated;
+    int destroyed;
+
+    CountingPagerAdapter(int count) {
+        for (int i = 0; i < count; i++) {
+            items.add(i);
+        }
+    }
+
+    void resetCounts() {
+        instantiated = 0;
+        destroyed = 0;
+    }
+
+    @Override
+    public int getCount() {
+        return items.size();
+    }
+
+    @Override
+    public Object instantiateItem(ViewGroup container, int position) {
+        instantiated++;
+        final View view = new View(container.getContext());
+        view.setTag(items.get(position));
+        container.addView(view);
+        return view;
+    }
+
+    @Override
+    public void destroyItem(ViewGroup container, int position, Object object) {
+        destroyed++;
+        container.removeView((View) object);
+    }
+
+    @Override
+    public boolean isViewFromObject(View view, Object object) {
+        return view == object;
+    }
+
+    @Override
+    public int getItemPosition(Object object) {
+        final int position = items.indexOf(((View) object).getTag());
+        return position < 0 ? POSITION_NONE : position;
+    }
+
+}
@@ -0,0 +1,220 @@
+package se.emilsjolander.flipviewPager;
+
+import android.app.Activity;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Replays gestures through dispatchTouchEvent and lets the resulting flips
+ * run their frames. The allocation gate keeps the move events of a drag
+ * allocation free. Robolectric's VelocityTracker is written in Java and
+ * allocates for every movement where the platform one does not, so what it
+ * allocates for the same events is subtracted. Down and up are left out,
+ * under Robolectric the release alone allocates about 21 KB posting its
+ * first frame through the legacy looper.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class FlipViewGestureReplayTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+
+    // measured 0 with Robolectric 4.3.1, the tracker accounts for all 56 bytes
+    // per move. Below the size of the smallest object, so any allocation per
+    // move fails the gate
+    private static final long MAX_BYTES_PER_MOVE = 8;
+    private static final int WARM_UP_REPLAYS = 3;
+    private static final int MEASURED_REPLAYS = 20;
+
+    private final List<MotionEvent[]> mObtained = new ArrayList<>();
+    private FlipView mFlipView;
+
+    @Before
+    public void setUp() {
+        mFlipView = createFlipView(new CountingPagerAdapter(10));
+    }
+
+    @After
+    public void tearDown() {
+        for (MotionEvent[] events : mObtained) {
+            for (MotionEvent event : events) {
+                event.recycle();
+            }
+        }
+    }
+
+    @Test
+    public void recordedFlingFlipsToNextPage() throws IOException {
+        replay(mFlipView, obtain(readTrace("fling_next.trace")));
+        settle();
+
+        assertEquals(1, mFlipView.getCurrentPage());
+    }
+
+    @Test
+    public void slowDragBelowHalfPageSettlesBack() {
+        replay(mFlipView, obtain(restingDrag()));
+        settle();
+
+        assertEquals(0, mFlipView.getCurrentPage());
+    }
+
+    @Test
+    public void touchTrackingDoesNotAllocate() {
+        assumeTrue(Allocations.isSupported());
+        final MotionEvent[] events = obtain(restingDrag());
+
+        final long flipBytes = measureMoves(mFlipView, events);
+        final long trackerBytes = measureVelocityTracking(events);
+
+        final long bytesPerMove = Math.max(0, flipBytes - trackerBytes)
+                / (countMoves(events) * (long) MEASURED_REPLAYS);
+        assertTrue("Touch tracking allocated " + bytesPerMove + " bytes per move",
+                bytesPerMove <= MAX_BYTES_PER_MOVE);
+        assertEquals(0, mFlipView.getCurrentPage());
+    }
+
+    @Test
+    public void everyPageOfQuickFlipsIsReported() {
+        final Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        final FlipView flipView = new FlipView(activity);
+        activity.setContentView(flipView);
+        flipView.setAdapter(new CountingPagerAdapter(10));
+        final List<Integer> pages = new ArrayList<>();
+        flipView.setOnFlipListener((v, position) -> pages.add(position));
+        flipView.flipTo(1);
+        settle();
+        pages.clear();
+
+        // all three notifications are still pending when the next flip starts
+        flipView.flipTo(2);
+        flipView.flipTo(3);
+        flipView.flipTo(4);
+        settle();
+
+        assertEquals(Arrays.asList(2, 3, 4), pages);
+    }
+
+    private static FlipView createFlipView(CountingPagerAdapter adapter) {
+        final FlipView flipView = new FlipView(RuntimeEnvironment.application);
+        flipView.setAdapter(adapter);
+        flipView.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        flipView.layout(0, 0, WIDTH, HEIGHT);
+        return flipView;
+    }
+
+    /**
+     * A drag of a tenth of a page which rests before the release, so the
+     * flip settles back on the page it started on
+     */
+    private static GestureTrace restingDrag() {
+        return GestureTrace.drag(WIDTH / 2f, HEIGHT * 0.6f, HEIGHT * 0.5f, 300, 200, 20, 2);
+    }
+
+    private static GestureTrace readTrace(String name) throws IOException {
+        try (InputStream in = FlipViewGestureReplayTest.class.getClassLoader()
+                .getResourceAsStream("traces/" + name)) {
+            return GestureTrace.read(in);
+        }
+    }
+
+    private MotionEvent[] obtain(GestureTrace trace) {
+        final MotionEvent[] events = trace.obtainEvents();
+        mObtained.add(events);
+        return events;
+    }
+
+    private static long measureMoves(View view, MotionEvent[] events) {
+        for (int i = 0; i < WARM_UP_REPLAYS; i++) {
+            replay(view, events);
+            settle();
+        }
+        final long overhead = Allocations.overhead();
+        long bytes = 0;
+        for (int i = 0; i < MEASURED_REPLAYS; i++) {
+            for (MotionEvent event : events) {
+                final long start = Allocations.allocatedBytes();
+                view.dispatchTouchEvent(event);
+                if (event.getActionMasked() == MotionEvent.ACTION_MOVE) {
+                    bytes += Allocations.allocatedBytes() - start - overhead;
+                }
+            }
+            // the settle animation runs frames, those are not touch tracking
+            settle();
+        }
+        return bytes;
+    }
+
+    /**
+     * @return what Robolectric's VelocityTracker allocates for the moves of
+     * the same replays
+     */
+    private static long measureVelocityTracking(MotionEvent[] events) {
+        final VelocityTracker tracker = VelocityTracker.obtain();
+        for (int i = 0; i < WARM_UP_REPLAYS; i++) {
+            for (MotionEvent event : events) {
+                tracker.addMovement(event);
+            }
+            tracker.clear();
+        }
+        final long overhead = Allocations.overhead();
+        long bytes = 0;
+        for (int i = 0; i < MEASURED_REPLAYS; i++) {
+            for (MotionEvent event : events) {
+                final long start = Allocations.allocatedBytes();
+                tracker.addMovement(event);
+                if (event.getActionMasked() == MotionEvent.ACTION_MOVE) {
+                    bytes += Allocations.allocatedBytes() - start - overhead;
+                }
+            }
+            tracker.clear();
+        }
+        tracker.recycle();
+        return bytes;
+    }
+
+    private static int countMoves(MotionEvent[] events) {
+        int moves = 0;
+        for (MotionEvent event : events) {
+            if (event.getActionMasked() == MotionEvent.ACTION_MOVE) {
+                moves++;
+            }
+        }
+        return moves;
+    }
+
+    private static void replay(View view, MotionEvent[] events) {
+        for (MotionEvent event : events) {
+            view.dispatchTouchEvent(event);
+        }
+    }
+
+    private static void settle() {
+        ShadowLooper.idleMainLooper(1, TimeUnit.SECONDS);
+    }
+
+}
@@ -0,0 +1,116 @@
+package se.emilsjolander.flipviewPager;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Counts instantiateItem and destroyItem calls, pages which stay in the
+ * window must survive jumps and data changes.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class FlipViewPageReuseTest {
+
+    private FlipView mFlipView;
+    private CountingPagerAdapter mAdapter;
+
+    @Before
+    public void setUp() {
+        mFlipView = FlipViews.laidOut();
+        mAdapter = new CountingPagerAdapter(10);
+    }
+
+    @Test
+    public void setAdapterInstantiatesFirstWindowOnly() {
+        mFlipView.setAdapter(mAdapter);
+
+        assertEquals(2, mAdapter.instantiated);
+        assertEquals(0, mAdapter.destroyed);
+    }
+
+    @Test
+    public void jumpOutOfWindowReplacesWholeWindow() {
+        mFlipView.setAdapter(mAdapter);
+        mAdapter.resetCounts();
+
+        mFlipView.flipTo(5);
+
+        assertEquals(5, mFlipView.getCurrentPage());
+        assertEquals(3, mAdapter.instantiated);
+        assertEquals(2, mAdapter.destroyed);
+    }
+
+    @Test
+    public void overlappingJumpKeepsSharedPage() {
+        mFlipView.setAdapter(mAdapter);
+        mFlipView.flipTo(5);
+        mAdapter.resetCounts();
+
+        // window 4..6 becomes 6..8, page 6 survives
+        mFlipView.flipTo(7);
+
+        assertEquals(2, mAdapter.instantiated);
+        assertEquals(2, mAdapter.destroyed);
+    }
+
+    @Test
+    public void adjacentFlipInstantiatesOnePage() {
+        mFlipView.setAdapter(mAdapter);
+        mFlipView.flipTo(5);
+        mAdapter.resetCounts();
+
+        mFlipView.flipTo(6);
+
+        assertEquals(1, mAdapter.instantiated);
+        assertEquals(1, mAdapter.destroyed);
+    }
+
+    @Test
+    public void unchangedDataSetKeepsAllPages() {
+        mFlipView.setAdapter(mAdapter);
+        mFlipView.flipTo(5);
+        mAdapter.resetCounts();
+
+        mAdapter.notifyDataSetChanged();
+
+        assertEquals(5, mFlipView.getCurrentPage());
+        assertEquals(0, mAdapter.instantiated);
+        assertEquals(0, mAdapter.destroyed);
+    }
+
+    @Test
+    public void prependKeepsShiftedPages() {
+        mFlipView.setAdapter(mAdapter);
+        mFlipView.flipTo(5);
+        mAdapter.resetCounts();
+
+        mAdapter.items.add(0, 100);
+        mAdapter.items.add(0, 101);
+        mAdapter.notifyDataSetChanged();
+
+        assertEquals(7, mFlipView.getCurrentPage());
+        assertEquals(0, mAdapter.instantiated);
+        assertEquals(0, mAdapter.destroyed);
+    }
+
+    @Test
+    public void resetAfterCurrentItemRemovedKeepsSurvivors() {
+        mFlipView.setAdapter(mAdapter);
+        mFlipView.flipTo(1);
+        mAdapter.resetCounts();
+
+        // the view starts over at page 0, items 0 and 2 make up that window
+        mAdapter.items.remove(Integer.valueOf(1));
+        mAdapter.notifyDataSetChanged();
+
+        assertEquals(0, mFlipView.getCurrentPage());
+        assertEquals(0, mAdapter.instantiated);
+        assertEquals(1, mAdapter.destroyed);
+    }
+
+}
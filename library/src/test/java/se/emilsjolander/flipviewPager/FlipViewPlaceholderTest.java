@@ -0,0 +1,101 @@
+package se.emilsjolander.flipviewPager;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Placeholder pages stand in for their position while the page is prepared
+ * in the background, data changes must not treat them as removed items and
+ * a placeholder never stays the current page.
+ * The prepared pages are posted to the main looper which Robolectric only
+ * runs when asked to, so placeholders stay in place during these tests.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class FlipViewPlaceholderTest {
+
+    static class Holder extends RecyclingPagerAdapter.ViewHolder {
+        Holder(View itemView) {
+            super(itemView);
+        }
+    }
+
+    static class Adapter extends RecyclingPagerAdapter<Holder> {
+        int count = 10;
+        int bound;
+
+        @Override
+        public int getCount() {
+            return count;
+        }
+
+        @Override
+        public Holder onCreateViewHolder(ViewGroup parent, int viewType) {
+            return new Holder(new View(parent.getContext()));
+        }
+
+        @Override
+        public void onBindViewHolder(Holder holder, int position) {
+            bound++;
+        }
+    }
+
+    private FlipView mFlipView;
+    private Adapter mAdapter;
+
+    @Before
+    public void setUp() {
+        mFlipView = FlipViews.laidOut();
+        mFlipView.setAsyncPagePreparationEnabled(true);
+        mAdapter = new Adapter();
+        mFlipView.setAdapter(mAdapter);
+        // page 0 is bound, page 1 is a placeholder
+        mAdapter.bound = 0;
+    }
+
+    @Test
+    public void flipOntoPlaceholderInstantiatesIt() {
+        mFlipView.flipTo(1);
+
+        // page 1 is bound right away, page 2 is a new placeholder
+        assertEquals(1, mFlipView.getCurrentPage());
+        assertEquals(1, mAdapter.bound);
+        assertEquals(3, mFlipView.getChildCount());
+    }
+
+    @Test
+    public void dataSetChangeKeepsPlaceholder() {
+        mAdapter.notifyDataSetChanged();
+
+        assertEquals(0, mFlipView.getCurrentPage());
+        assertEquals(2, mFlipView.getChildCount());
+        assertEquals(0, mAdapter.bound);
+    }
+
+    @Test
+    public void appendKeepsPlaceholder() {
+        mAdapter.count = 20;
+        mAdapter.notifyItemRangeInserted(10, 10);
+
+        assertEquals(2, mFlipView.getChildCount());
+        assertEquals(0, mAdapter.bound);
+    }
+
+    @Test
+    public void removedPlaceholderPositionIsDestroyed() {
+        mAdapter.count = 1;
+        mAdapter.notifyDataSetChanged();
+
+        assertEquals(0, mFlipView.getCurrentPage());
+        assertEquals(1, mFlipView.getChildCount());
+    }
+
+}
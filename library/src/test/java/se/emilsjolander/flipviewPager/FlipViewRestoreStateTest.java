@@ -0,0 +1,136 @@
+package se.emilsjolander.flipviewPager;
+
+import android.os.Parcelable;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * A page restored while the adapter is still loading must not be dropped.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class FlipViewRestoreStateTest {
+
+    private Parcelable mState;
+    private FlipView mFlipView;
+    private CountingPagerAdapter mAdapter;
+
+    @Before
+    public void setUp() {
+        final FlipView saved = new FlipView(RuntimeEnvironment.application);
+        saved.setAdapter(new CountingPagerAdapter(10));
+        saved.flipTo(7);
+        mState = saved.onSaveInstanceState();
+
+        // only the first pages are loaded when the state is restored
+        mFlipView = new FlipView(RuntimeEnvironment.application);
+        mAdapter = new CountingPagerAdapter(3);
+        mFlipView.setAdapter(mAdapter);
+        mFlipView.onRestoreInstanceState(mState);
+    }
+
+    @Test
+    public void restoredPageWaitsForData() {
+        assertEquals(0, mFlipView.getCurrentPage());
+
+        loadAll();
+
+        assertEquals(7, mFlipView.getCurrentPage());
+    }
+
+    @Test
+    public void restoredPageWaitsUntilValid() {
+        mAdapter.items.add(3);
+        mAdapter.notifyDataSetChanged();
+        assertEquals(0, mFlipView.getCurrentPage());
+
+        loadAll();
+
+        assertEquals(7, mFlipView.getCurrentPage());
+    }
+
+    @Test
+    public void flipDropsRestoredPage() {
+        mFlipView.flipTo(1);
+
+        loadAll();
+
+        assertEquals(1, mFlipView.getCurrentPage());
+    }
+
+    @Test
+    public void setAdapterDropsRestoredPage() {
+        mFlipView.setAdapter(mAdapter);
+
+        loadAll();
+
+        assertEquals(0, mFlipView.getCurrentPage());
+    }
+
+    @Test
+    public void restoredPageBeforeAdapterWaitsForData() {
+        mFlipView = new FlipView(RuntimeEnvironment.application);
+        mFlipView.onRestoreInstanceState(mState);
+        mFlipView.setAdapter(mAdapter);
+        assertEquals(2, mFlipView.getCurrentPage());
+
+        loadAll();
+
+        assertEquals(7, mFlipView.getCurrentPage());
+    }
+
+    @Test
+    public void pendingPageSurvivesSecondSave() {
+        final Parcelable state = mFlipView.onSaveInstanceState();
+        mFlipView = new FlipView(RuntimeEnvironment.application);
+        mAdapter = new CountingPagerAdapter(3);
+        mFlipView.setAdapter(mAdapter);
+        mFlipView.onRestoreInstanceState(state);
+
+        loadAll();
+
+        assertEquals(7, mFlipView.getCurrentPage());
+    }
+
+    @Test
+    public void restoreBeforeFirstLayoutBuildsOnlyRestoredWindow() {
+        final CountingPagerAdapter adapter = new CountingPagerAdapter(10);
+        mFlipView = new FlipView(RuntimeEnvironment.application);
+        mFlipView.setAdapter(adapter);
+        mFlipView.onRestoreInstanceState(mState);
+        assertEquals(0, adapter.instantiated);
+
+        FlipViews.layout(mFlipView);
+
+        assertEquals(7, mFlipView.getCurrentPage());
+        assertEquals(3, adapter.instantiated);
+        assertEquals(0, adapter.destroyed);
+    }
+
+    @Test
+    public void restoreAfterLayoutJumps() {
+        final CountingPagerAdapter adapter = new CountingPagerAdapter(10);
+        mFlipView = FlipViews.laidOut();
+        mFlipView.setAdapter(adapter);
+        mFlipView.onRestoreInstanceState(mState);
+
+        assertEquals(7, mFlipView.getCurrentPage());
+        assertEquals(5, adapter.instantiated);
+        assertEquals(2, adapter.destroyed);
+    }
+
+    private void loadAll() {
+        for (int i = mAdapter.items.size(); i < 10; i++) {
+            mAdapter.items.add(i);
+        }
+        mAdapter.notifyDataSetChanged();
+    }
+
+}
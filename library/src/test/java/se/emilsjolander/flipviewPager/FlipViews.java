@@ -0,0 +1,31 @@
+package se.emilsjolander.flipviewPager;
+
+import android.view.View;
+
+import org.robolectric.RuntimeEnvironment;
+
+/**
+ * FlipViews sized like one on screen. A FlipView which was not laid out yet
+ * only instantiates the pages of a new adapter once it is measured.
+ */
+final class FlipViews {
+
+    static final int WIDTH = 480;
+    static final int HEIGHT = 800;
+
+    private FlipViews() {
+    }
+
+    static FlipView laidOut() {
+        final FlipView flipView = new FlipView(RuntimeEnvironment.application);
+        layout(flipView);
+        return flipView;
+    }
+
+    static void layout(View view) {
+        view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+}
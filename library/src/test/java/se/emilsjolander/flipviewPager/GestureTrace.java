@@ -0,0 +1,160 @@
+package se.emilsjolander.flipviewPager;
+
+import android.view.MotionEvent;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A single pointer gesture, recorded from real MotionEvents or built by hand,
+ * which can be replayed through a view as often as needed. The text form has
+ * one sample per line:
+ * <pre>
+ * down|move|up|cancel|history &lt;eventTimeMs&gt; &lt;x&gt; &lt;y&gt;
+ * </pre>
+ * history lines are the batched samples of the event on the next line. To
+ * record a trace on a device feed the touch events of a view to
+ * {@link #record(MotionEvent)} and log {@link #toString()}.
+ */
+final class GestureTrace {
+
+    private static final int HISTORY = -1;
+    // moves reported while the pointer rests before a release
+    private static final int HOLD_MOVES = 4;
+
+    private static final class Sample {
+        final int action;
+        final long time;
+        final float x;
+        final float y;
+
+        Sample(int action, long time, float x, float y) {
+            this.action = action;
+            this.time = time;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    private final List<Sample> mSamples = new ArrayList<>();
+
+    void record(MotionEvent ev) {
+        for (int i = 0; i < ev.getHistorySize(); i++) {
+            mSamples.add(new Sample(HISTORY, ev.getHistoricalEventTime(i),
+                    ev.getHistoricalX(i), ev.getHistoricalY(i)));
+        }
+        mSamples.add(new Sample(ev.getActionMasked(), ev.getEventTime(), ev.getX(), ev.getY()));
+    }
+
+    /**
+     * A straight drag along the y axis, moveCount moves with historyPerMove
+     * batched samples each. The pointer then rests at toY for holdMs before
+     * it is released, a hold of 0 releases it mid motion like a fling.
+     */
+    static GestureTrace drag(float x, float fromY, float toY, long durationMs, long holdMs,
+                             int moveCount, int historyPerMove) {
+        final GestureTrace trace = new GestureTrace();
+        final int steps = moveCount * (historyPerMove + 1);
+        trace.mSamples.add(new Sample(MotionEvent.ACTION_DOWN, 0, x, fromY));
+        for (int step = 1; step <= steps; step++) {
+            final boolean history = step % (historyPerMove + 1) != 0;
+            trace.mSamples.add(new Sample(history ? HISTORY : MotionEvent.ACTION_MOVE,
+                    durationMs * step / steps, x, fromY + (toY - fromY) * step / steps));
+        }
+        for (int step = 1; step <= HOLD_MOVES && holdMs > 0; step++) {
+            trace.mSamples.add(new Sample(MotionEvent.ACTION_MOVE,
+                    durationMs + holdMs * step / HOLD_MOVES, x, toY));
+        }
+        trace.mSamples.add(new Sample(MotionEvent.ACTION_UP, durationMs + holdMs, x, toY));
+        return trace;
+    }
+
+    static GestureTrace read(InputStream in) throws IOException {
+        final GestureTrace trace = new GestureTrace();
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            final String[] parts = line.split("\\s+");
+            trace.mSamples.add(new Sample(parseAction(parts[0]), Long.parseLong(parts[1]),
+                    Float.parseFloat(parts[2]), Float.parseFloat(parts[3])));
+        }
+        return trace;
+    }
+
+    /**
+     * Obtain the events of the trace up front so replaying them allocates
+     * nothing. The caller recycles them.
+     */
+    MotionEvent[] obtainEvents() {
+        final List<MotionEvent> events = new ArrayList<>();
+        final long downTime = mSamples.isEmpty() ? 0 : mSamples.get(0).time;
+        MotionEvent event = null;
+        for (Sample sample : mSamples) {
+            if (event == null) {
+                // the first history sample starts the event, the rest are batched
+                event = MotionEvent.obtain(downTime, sample.time,
+                        sample.action == HISTORY ? MotionEvent.ACTION_MOVE : sample.action,
+                        sample.x, sample.y, 0);
+            } else {
+                event.addBatch(sample.time, sample.x, sample.y, 1, 1, 0);
+            }
+            if (sample.action != HISTORY) {
+                events.add(event);
+                event = null;
+            }
+        }
+        return events.toArray(new MotionEvent[0]);
+    }
+
+    private static int parseAction(String action) {
+        switch (action) {
+            case "down":
+                return MotionEvent.ACTION_DOWN;
+            case "move":
+                return MotionEvent.ACTION_MOVE;
+            case "up":
+                return MotionEvent.ACTION_UP;
+            case "cancel":
+                return MotionEvent.ACTION_CANCEL;
+            case "history":
+                return HISTORY;
+            default:
+                throw new IllegalArgumentException("Unknown action " + action);
+        }
+    }
+
+    private static String formatAction(int action) {
+        switch (action) {
+            case MotionEvent.ACTION_DOWN:
+                return "down";
+            case MotionEvent.ACTION_MOVE:
+                return "move";
+            case MotionEvent.ACTION_UP:
+                return "up";
+            case MotionEvent.ACTION_CANCEL:
+                return "cancel";
+            default:
+                return "history";
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        for (Sample sample : mSamples) {
+            sb.append(String.format(Locale.US, "%s %d %.1f %.1f",
+                    formatAction(sample.action), sample.time, sample.x, sample.y)).append('\n');
+        }
+        return sb.toString();
+    }
+
+}
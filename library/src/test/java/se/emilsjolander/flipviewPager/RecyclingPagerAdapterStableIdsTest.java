@@ -0,0 +1,128 @@
+package se.emilsjolander.flipviewPager;
+
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import androidx.viewpager.widget.PagerAdapter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class RecyclingPagerAdapterStableIdsTest {
+
+    static class Holder extends RecyclingPagerAdapter.ViewHolder {
+        Holder(View itemView) {
+            super(itemView);
+        }
+    }
+
+    static class Adapter extends RecyclingPagerAdapter<Holder> {
+        final List<Long> ids = new ArrayList<>();
+        int idLookups;
+
+        Adapter(int count) {
+            for (long i = 0; i < count; i++) {
+                ids.add(i);
+            }
+            setHasStableIds(true);
+        }
+
+        @Override
+        public int getCount() {
+            return ids.size();
+        }
+
+        @Override
+        public long getItemId(int position) {
+            idLookups++;
+            return ids.get(position);
+        }
+
+        @Override
+        public Holder onCreateViewHolder(ViewGroup parent, int viewType) {
+            return new Holder(new View(parent.getContext()));
+        }
+
+        @Override
+        public void onBindViewHolder(Holder holder, int position) {
+        }
+    }
+
+    private Adapter mAdapter;
+    private Object[] mPages;
+
+    @Before
+    public void setUp() {
+        final FrameLayout container = new FrameLayout(RuntimeEnvironment.application);
+        mAdapter = new Adapter(1000);
+        mPages = new Object[]{
+                mAdapter.instantiateItem(container, 499),
+                mAdapter.instantiateItem(container, 500),
+                mAdapter.instantiateItem(container, 501)
+        };
+    }
+
+    @Test
+    public void prependShiftsActivePages() {
+        for (long i = 0; i < 5; i++) {
+            mAdapter.ids.add(0, -1 - i);
+        }
+        mAdapter.notifyDataSetChanged();
+        mAdapter.idLookups = 0;
+
+        assertEquals(504, mAdapter.getItemPosition(mPages[0]));
+        assertEquals(505, mAdapter.getItemPosition(mPages[1]));
+        assertEquals(506, mAdapter.getItemPosition(mPages[2]));
+        // only the neighbourhood of the pages is searched, not all 1005 items
+        assertTrue("looked up " + mAdapter.idLookups + " ids", mAdapter.idLookups <= 16);
+    }
+
+    @Test
+    public void appendKeepsActivePages() {
+        mAdapter.ids.add(1000L);
+        mAdapter.notifyDataSetChanged();
+        mAdapter.idLookups = 0;
+
+        assertEquals(499, mAdapter.getItemPosition(mPages[0]));
+        assertEquals(500, mAdapter.getItemPosition(mPages[1]));
+        assertEquals(501, mAdapter.getItemPosition(mPages[2]));
+        assertTrue("looked up " + mAdapter.idLookups + " ids", mAdapter.idLookups <= 3);
+    }
+
+    @Test
+    public void removedItemHasNoPosition() {
+        mAdapter.ids.remove(Long.valueOf(500));
+        mAdapter.notifyDataSetChanged();
+
+        assertEquals(499, mAdapter.getItemPosition(mPages[0]));
+        assertEquals(PagerAdapter.POSITION_NONE, mAdapter.getItemPosition(mPages[1]));
+        assertEquals(500, mAdapter.getItemPosition(mPages[2]));
+    }
+
+    @Test
+    public void positionsAreLookedUpOncePerChange() {
+        mAdapter.ids.add(0, -1L);
+        mAdapter.notifyDataSetChanged();
+        mAdapter.getItemPosition(mPages[0]);
+        mAdapter.idLookups = 0;
+
+        mAdapter.getItemPosition(mPages[1]);
+        mAdapter.getItemPosition(mPages[2]);
+
+        assertEquals(0, mAdapter.idLookups);
+    }
+
+}
@@ -0,0 +1,130 @@
+package se.emilsjolander.flipviewPager;
+
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Feeds synthetic flip metrics to the governor.
+ */
+public class RenderQualityGovernorTest {
+
+    private final Set<RenderQuality> mNoOps = EnumSet.noneOf(RenderQuality.class);
+    private final RenderQualityGovernor mGovernor =
+            new RenderQualityGovernor(quality -> !mNoOps.contains(quality));
+
+    @Test
+    public void singleJankyFlipKeepsQuality() {
+        assertFalse(mGovernor.onFlip(janky()));
+        assertEquals(RenderQuality.FULL, mGovernor.getQuality());
+    }
+
+    @Test
+    public void jankyFlipsStepDownOneQuality() {
+        mGovernor.onFlip(janky());
+        assertTrue(mGovernor.onFlip(janky()));
+        assertEquals(RenderQuality.NO_SHADOWS, mGovernor.getQuality());
+    }
+
+    @Test
+    public void shortFlipsAreIgnored() {
+        mGovernor.onFlip(metrics(5, 5));
+        mGovernor.onFlip(metrics(5, 5));
+        assertEquals(RenderQuality.FULL, mGovernor.getQuality());
+    }
+
+    @Test
+    public void smoothFlipsStepBackUp() {
+        stepDown(2);
+        assertEquals(RenderQuality.NO_LAYERS, mGovernor.getQuality());
+
+        for (int i = 0; i < 7; i++) {
+            assertFalse(mGovernor.onFlip(smooth()));
+        }
+        assertTrue(mGovernor.onFlip(smooth()));
+        assertEquals(RenderQuality.NO_SHADOWS, mGovernor.getQuality());
+    }
+
+    @Test
+    public void mixedFlipResetsStreak() {
+        mGovernor.onFlip(janky());
+        mGovernor.onFlip(metrics(20, 2));
+        assertFalse(mGovernor.onFlip(janky()));
+        assertEquals(RenderQuality.FULL, mGovernor.getQuality());
+    }
+
+    @Test
+    public void stepDownSkipsNoLayersWithoutLayers() {
+        mNoOps.add(RenderQuality.NO_LAYERS);
+
+        stepDown(2);
+
+        assertEquals(RenderQuality.SNAPSHOTS, mGovernor.getQuality());
+    }
+
+    @Test
+    public void stepDownSkipsSnapshotsWhenAlreadyOn() {
+        mNoOps.add(RenderQuality.SNAPSHOTS);
+
+        stepDown(3);
+
+        assertEquals(RenderQuality.LOW_RES_SNAPSHOTS, mGovernor.getQuality());
+    }
+
+    @Test
+    public void stepUpSkipsNoOps() {
+        mNoOps.add(RenderQuality.NO_LAYERS);
+        mNoOps.add(RenderQuality.SNAPSHOTS);
+        stepDown(2);
+        assertEquals(RenderQuality.LOW_RES_SNAPSHOTS, mGovernor.getQuality());
+
+        stepUp();
+
+        assertEquals(RenderQuality.NO_SHADOWS, mGovernor.getQuality());
+    }
+
+    @Test
+    public void lowestQualityStaysPut() {
+        mNoOps.add(RenderQuality.LOW_RES_SNAPSHOTS);
+        stepDown(3);
+        assertEquals(RenderQuality.SNAPSHOTS, mGovernor.getQuality());
+
+        mGovernor.onFlip(janky());
+        assertFalse(mGovernor.onFlip(janky()));
+        assertEquals(RenderQuality.SNAPSHOTS, mGovernor.getQuality());
+    }
+
+    private void stepDown(int steps) {
+        for (int i = 0; i < steps; i++) {
+            mGovernor.onFlip(janky());
+            assertTrue(mGovernor.onFlip(janky()));
+        }
+    }
+
+    private void stepUp() {
+        for (int i = 0; i < 8; i++) {
+            mGovernor.onFlip(smooth());
+        }
+    }
+
+    private static FlipMetrics janky() {
+        return metrics(20, 10);
+    }
+
+    private static FlipMetrics smooth() {
+        return metrics(20, 0);
+    }
+
+    private static FlipMetrics metrics(int frameIntervals, int jankyFrameIntervals) {
+        final FlipMetrics metrics = new FlipMetrics();
+        metrics.frameIntervals = frameIntervals;
+        metrics.jankyFrameIntervals = jankyFrameIntervals;
+        return metrics;
+    }
+
+}
@@ -0,0 +1,90 @@
+package se.emilsjolander.flipviewPager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the math FlipView runs per touch event and per frame. Run
+ * with the gc profiler to check that none of it allocates, gc.alloc.rate.norm
+ * has to stay at 0 bytes per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FlipPhysicsBenchmark {
+
+    private static final int VIEW_SIZE = 2560;
+    private static final int MIN_VELOCITY = 150;
+    private static final int MAX_VELOCITY = 24000;
+
+    // a gesture worth of pointer deltas and flip distances, walked in order
+    private final float[] mDeltas = new float[256];
+    private final float[] mFlipDistances = new float[256];
+    private int mIndex;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < mDeltas.length; i++) {
+            mDeltas[i] = (float) Math.sin(i * 0.1) * 40;
+            mFlipDistances[i] = i * 7.3f;
+        }
+    }
+
+    private int next() {
+        mIndex = (mIndex + 1) & (mDeltas.length - 1);
+        return mIndex;
+    }
+
+    /**
+     * What onTouchEvent does for every ACTION_MOVE
+     */
+    @Benchmark
+    public void touchMove(Blackhole bh) {
+        final int i = next();
+        final float flipDistance = mFlipDistances[i]
+                + FlipPhysics.toFlipDistance(mDeltas[i], VIEW_SIZE);
+        bh.consume(FlipPhysics.getCurrentPageRound(flipDistance));
+    }
+
+    /**
+     * Pulling past the first or last page with the rubber band over flipper
+     */
+    @Benchmark
+    public float overFlip() {
+        return FlipPhysics.getRubberBandOverFlip(mDeltas[next()] * 4, 60, 0.6f);
+    }
+
+    /**
+     * What ACTION_UP does to pick the page and duration of the settle
+     */
+    @Benchmark
+    public void release(Blackhole bh) {
+        final int i = next();
+        final int velocity = (int) (mDeltas[i] * 600);
+        final int page = FlipPhysics.getNextPage(mFlipDistances[i], velocity,
+                MIN_VELOCITY, MAX_VELOCITY, 3, 100);
+        bh.consume(page);
+        bh.consume(FlipPhysics.getFlipDuration(
+                (int) (page * FlipPhysics.FLIP_DISTANCE_PER_PAGE - mFlipDistances[i])));
+    }
+
+    /**
+     * What every frame of a flip computes before drawing
+     */
+    @Benchmark
+    public void frame(Blackhole bh) {
+        final float flipDistance = mFlipDistances[next()];
+        bh.consume(FlipPhysics.getDegreesFlipped(flipDistance));
+        bh.consume(FlipPhysics.getCurrentPageFloor(flipDistance));
+        bh.consume(FlipPhysics.getCurrentPageCeil(flipDistance));
+    }
+
+}
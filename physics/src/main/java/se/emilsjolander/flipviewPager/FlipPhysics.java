@@ -0,0 +1,120 @@
+package se.emilsjolander.flipviewPager;
+
+/**
+ * The flip math of FlipView. Lives in its own plain Java module, free of any
+ * Android dependency, so it can be tested and benchmarked on a plain JVM.
+ * <p>
+ * Flip distances are normalized, every page is {@link #FLIP_DISTANCE_PER_PAGE}
+ * long no matter the size of the view.
+ */
+public final class FlipPhysics {
+
+    // for normalizing width/height
+    public static final int FLIP_DISTANCE_PER_PAGE = 180;
+
+    public static final int MAX_SINGLE_PAGE_FLIP_ANIM_DURATION = 300;// in ms
+
+    private FlipPhysics() {
+    }
+
+    /**
+     * @return 0 to 180, how far the page at flipDistance is flipped
+     */
+    public static float getDegreesFlipped(float flipDistance) {
+        float localFlipDistance = flipDistance % FLIP_DISTANCE_PER_PAGE;
+
+        // fix for negative modulo. always want a positive flip degree
+        if (localFlipDistance < 0) {
+            localFlipDistance += FLIP_DISTANCE_PER_PAGE;
+        }
+
+        return (localFlipDistance / FLIP_DISTANCE_PER_PAGE) * 180;
+    }
+
+    /**
+     * @param deltaFlipDistance The distance to flip.
+     * @return The duration for a flip, bigger deltaFlipDistance = longer
+     * duration. The increase if duration gets smaller for bigger values
+     * of deltaFlipDistance.
+     */
+    public static int getFlipDuration(int deltaFlipDistance) {
+        float distance = Math.abs(deltaFlipDistance);
+        return (int) (MAX_SINGLE_PAGE_FLIP_ANIM_DURATION * Math.sqrt(distance
+                / FLIP_DISTANCE_PER_PAGE));
+    }
+
+    /**
+     * @param delta distance the pointer moved in pixels along the flip axis
+     * @param size  size of the view in pixels along the flip axis
+     * @return the flip distance the pointer movement corresponds to
+     */
+    public static float toFlipDistance(float delta, int size) {
+        return delta / (size / FLIP_DISTANCE_PER_PAGE);
+    }
+
+    /**
+     * @param flipDistance  the current flip distance
+     * @param velocity      release velocity along the flip axis
+     * @param minVelocity   slowest velocity considered a fling
+     * @param maxVelocity   fastest possible velocity
+     * @param maxFlingPages most pages a single fling can flip
+     * @param pageCount     amount of pages
+     * @return the page you should "land" on
+     */
+    public static int getNextPage(float flipDistance, int velocity, int minVelocity,
+                           int maxVelocity, int maxFlingPages, int pageCount) {
+        int nextPage;
+        if (velocity > minVelocity) {
+            nextPage = getCurrentPageFloor(flipDistance)
+                    - getExtraFlingPages(velocity, minVelocity, maxVelocity, maxFlingPages);
+        } else if (velocity < -minVelocity) {
+            nextPage = getCurrentPageCeil(flipDistance)
+                    + getExtraFlingPages(velocity, minVelocity, maxVelocity, maxFlingPages);
+        } else {
+            nextPage = getCurrentPageRound(flipDistance);
+        }
+        return Math.min(Math.max(nextPage, 0), pageCount - 1);
+    }
+
+    /**
+     * @return how many pages past the adjacent one a fling should carry. Scales
+     * linearly from 0 at minVelocity to maxFlingPages - 1 at maxVelocity
+     */
+    public static int getExtraFlingPages(int velocity, int minVelocity, int maxVelocity,
+                                  int maxFlingPages) {
+        if (maxFlingPages <= 1 || maxVelocity <= minVelocity) {
+            return 0;
+        }
+        final float fraction = (Math.abs(velocity) - minVelocity)
+                / (float) (maxVelocity - minVelocity);
+        return Math.round(Math.min(1, fraction) * (maxFlingPages - 1));
+    }
+
+    public static int getCurrentPageRound(float flipDistance) {
+        return Math.round(flipDistance / FLIP_DISTANCE_PER_PAGE);
+    }
+
+    public static int getCurrentPageFloor(float flipDistance) {
+        return (int) Math.floor(flipDistance / FLIP_DISTANCE_PER_PAGE);
+    }
+
+    public static int getCurrentPageCeil(float flipDistance) {
+        return (int) Math.ceil(flipDistance / FLIP_DISTANCE_PER_PAGE);
+    }
+
+    /**
+     * @param totalOverFlip   the flip distance the user pulled past the edge
+     * @param maxOverFlip     the furthest the page may follow
+     * @param exponent        below 1, the lower the stiffer the rubber band
+     * @return the distance the page follows the pull past the edge
+     */
+    public static float getRubberBandOverFlip(float totalOverFlip, float maxOverFlip, float exponent) {
+        final float sign = Math.signum(totalOverFlip);
+        final float overFlip = (float) Math.pow(Math.abs(totalOverFlip), exponent) * sign;
+        if (overFlip < 0) {
+            return Math.max(-maxOverFlip, overFlip);
+        }
+        return Math.min(maxOverFlip, overFlip);
+    }
+
+}
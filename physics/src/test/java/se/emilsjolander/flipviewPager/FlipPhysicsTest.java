@@ -0,0 +1,80 @@
+package se.emilsjolander.flipviewPager;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class FlipPhysicsTest {
+
+    private static final int PAGE = FlipPhysics.FLIP_DISTANCE_PER_PAGE;
+    private static final int MIN_VELOCITY = 100;
+    private static final int MAX_VELOCITY = 1100;
+    private static final float DELTA = 0.0001f;
+
+    @Test
+    public void slowReleaseLandsOnClosestPage() {
+        assertEquals(1, FlipPhysics.getNextPage(PAGE * 1.4f, 0, MIN_VELOCITY, MAX_VELOCITY, 3, 10));
+        assertEquals(2, FlipPhysics.getNextPage(PAGE * 1.6f, 0, MIN_VELOCITY, MAX_VELOCITY, 3, 10));
+        assertEquals(2, FlipPhysics.getNextPage(PAGE * 1.6f, -MIN_VELOCITY, MIN_VELOCITY, MAX_VELOCITY, 3, 10));
+    }
+
+    @Test
+    public void flingLandsOnAdjacentPageInItsDirection() {
+        // positive velocity flips back, negative velocity flips forward
+        assertEquals(1, FlipPhysics.getNextPage(PAGE * 1.9f, MIN_VELOCITY + 1, MIN_VELOCITY, MAX_VELOCITY, 3, 10));
+        assertEquals(2, FlipPhysics.getNextPage(PAGE * 1.1f, -MIN_VELOCITY - 1, MIN_VELOCITY, MAX_VELOCITY, 3, 10));
+    }
+
+    @Test
+    public void fastFlingCarriesExtraPages() {
+        assertEquals(4, FlipPhysics.getNextPage(PAGE * 1.1f, -MAX_VELOCITY, MIN_VELOCITY, MAX_VELOCITY, 3, 10));
+        assertEquals(3, FlipPhysics.getNextPage(PAGE * 5.9f, MAX_VELOCITY, MIN_VELOCITY, MAX_VELOCITY, 3, 10));
+    }
+
+    @Test
+    public void nextPageIsClampedToAdapter() {
+        assertEquals(0, FlipPhysics.getNextPage(PAGE * 0.5f, MAX_VELOCITY, MIN_VELOCITY, MAX_VELOCITY, 3, 10));
+        assertEquals(9, FlipPhysics.getNextPage(PAGE * 8.5f, -MAX_VELOCITY, MIN_VELOCITY, MAX_VELOCITY, 3, 10));
+        assertEquals(0, FlipPhysics.getNextPage(0, -MAX_VELOCITY, MIN_VELOCITY, MAX_VELOCITY, 3, 1));
+    }
+
+    @Test
+    public void extraFlingPagesScaleWithVelocity() {
+        assertEquals(0, FlipPhysics.getExtraFlingPages(MIN_VELOCITY, MIN_VELOCITY, MAX_VELOCITY, 3));
+        assertEquals(1, FlipPhysics.getExtraFlingPages(600, MIN_VELOCITY, MAX_VELOCITY, 3));
+        assertEquals(2, FlipPhysics.getExtraFlingPages(MAX_VELOCITY, MIN_VELOCITY, MAX_VELOCITY, 3));
+        assertEquals(2, FlipPhysics.getExtraFlingPages(-MAX_VELOCITY, MIN_VELOCITY, MAX_VELOCITY, 3));
+    }
+
+    @Test
+    public void extraFlingPagesAreCappedAtMaxVelocity() {
+        assertEquals(2, FlipPhysics.getExtraFlingPages(MAX_VELOCITY * 10, MIN_VELOCITY, MAX_VELOCITY, 3));
+    }
+
+    @Test
+    public void noExtraFlingPagesWithoutRange() {
+        assertEquals(0, FlipPhysics.getExtraFlingPages(MAX_VELOCITY, MIN_VELOCITY, MAX_VELOCITY, 1));
+        assertEquals(0, FlipPhysics.getExtraFlingPages(MAX_VELOCITY, MIN_VELOCITY, MIN_VELOCITY, 3));
+    }
+
+    @Test
+    public void rubberBandFollowsPullSublinearly() {
+        assertEquals(0, FlipPhysics.getRubberBandOverFlip(0, 50, 0.5f), DELTA);
+        assertEquals(10, FlipPhysics.getRubberBandOverFlip(100, 50, 0.5f), DELTA);
+        assertEquals(-10, FlipPhysics.getRubberBandOverFlip(-100, 50, 0.5f), DELTA);
+    }
+
+    @Test
+    public void rubberBandIsCappedBothWays() {
+        assertEquals(5, FlipPhysics.getRubberBandOverFlip(100, 5, 0.5f), DELTA);
+        assertEquals(-5, FlipPhysics.getRubberBandOverFlip(-100, 5, 0.5f), DELTA);
+    }
+
+    @Test
+    public void degreesFlippedWrapPerPage() {
+        assertEquals(0, FlipPhysics.getDegreesFlipped(PAGE * 3), DELTA);
+        assertEquals(90, FlipPhysics.getDegreesFlipped(PAGE * 3.5f), DELTA);
+        assertEquals(90, FlipPhysics.getDegreesFlipped(-PAGE * 0.5f), DELTA);
+    }
+
+}